@@ -0,0 +1,179 @@
+package com.reicar.benchmarks;
+
+import com.reicar.dtos.InvoiceDTO;
+import com.reicar.entities.*;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.entities.enums.PaymentMethod;
+import com.reicar.entities.enums.ServiceStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Grafo sintético de clientes, ordens de serviço, faturas e pagamentos montado só em memória
+ * (sem banco), com semente fixa para que execuções diferentes meçam os mesmos dados.
+ * As faturas são distribuídas ao longo de um ano a partir de {@link #START_DATE}.
+ */
+public final class BenchmarkData {
+
+    public static final LocalDate START_DATE = LocalDate.of(2025, 1, 1);
+    public static final LocalDate END_DATE = START_DATE.plusYears(1).minusDays(1);
+
+    private static final long SEED = 211L;
+    private static final int INVOICES_PER_CUSTOMER = 10;
+    private static final PaymentMethod[] METHODS = PaymentMethod.values();
+
+    private final List<ServiceOrder> serviceOrders;
+    private final List<Invoice> invoices;
+    private final List<Payment> payments;
+
+    private BenchmarkData(List<ServiceOrder> serviceOrders, List<Invoice> invoices, List<Payment> payments) {
+        this.serviceOrders = serviceOrders;
+        this.invoices = invoices;
+        this.payments = payments;
+    }
+
+    public static BenchmarkData generate(int invoiceCount, int itemsPerOrder) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int days = (int) (END_DATE.toEpochDay() - START_DATE.toEpochDay()) + 1;
+
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, invoiceCount / INVOICES_PER_CUSTOMER); i++) {
+            Customer customer = new Customer();
+            customer.setId((long) i + 1);
+            customer.setName("Cliente Benchmark " + i);
+            customer.setPhone("6199" + String.format("%07d", i));
+            customer.setCity("Brasília");
+            customer.setState("DF");
+            customers.add(customer);
+        }
+
+        List<ServiceOrder> serviceOrders = new ArrayList<>(invoiceCount);
+        List<Invoice> invoices = new ArrayList<>(invoiceCount);
+        List<Payment> payments = new ArrayList<>(invoiceCount);
+
+        for (int i = 0; i < invoiceCount; i++) {
+            LocalDate date = START_DATE.plusDays(random.nextInt(days));
+            Customer customer = customers.get(random.nextInt(customers.size()));
+
+            ServiceOrder order = random.nextInt(4) == 0 ? new TireShopServiceOrder() : new MechanicServiceOrder();
+            order.setId((long) i + 1);
+            order.setOrderNumber(String.format("REICAR-%d-%06d", date.getYear(), i + 1));
+            order.setEntryDate(date);
+            order.setStatus(ServiceStatus.FINISHED);
+            order.setCustomer(customer);
+            order.setServiceValue(money(random, 50, 800));
+            for (int j = 0; j < itemsPerOrder; j++) {
+                ServiceItem item = new ServiceItem();
+                item.setQuantity(1 + random.nextInt(4));
+                item.setDescription("Peça " + j);
+                item.setUnitPrice(money(random, 10, 600));
+                item.setServiceOrder(order);
+                order.getItems().add(item);
+            }
+            order.calculateTotalValue();
+            serviceOrders.add(order);
+
+            Invoice invoice = Invoice.builder()
+                .id((long) i + 1)
+                .invoiceNumber(String.format("FAT-%d-%06d", date.getYear(), i + 1))
+                .issueDate(date)
+                .serviceOrder(order)
+                .customer(customer)
+                .totalValue(order.getTotalValue())
+                .status(InvoiceStatus.UNPAID)
+                .build();
+            addPayments(random, invoice, payments);
+            invoices.add(invoice);
+        }
+
+        return new BenchmarkData(serviceOrders, invoices, payments);
+    }
+
+    // ~50% pagas (1 ou 2 pagamentos), ~25% parciais, ~20% pendentes, ~5% canceladas
+    private static void addPayments(SplittableRandom random, Invoice invoice, List<Payment> payments) {
+        int roll = random.nextInt(100);
+        if (roll < 5) {
+            invoice.setStatus(InvoiceStatus.CANCELLED);
+            return;
+        }
+        if (roll < 25) {
+            return;
+        }
+
+        BigDecimal total = invoice.getTotalValue();
+        if (roll < 50) {
+            addPayment(random, invoice, total.divide(BigDecimal.TWO, 2, RoundingMode.HALF_UP), payments);
+            invoice.setStatus(InvoiceStatus.PARTIAL);
+        } else if (random.nextBoolean()) {
+            addPayment(random, invoice, total, payments);
+            invoice.setStatus(InvoiceStatus.PAID);
+        } else {
+            BigDecimal first = total.divide(BigDecimal.TWO, 2, RoundingMode.HALF_UP);
+            addPayment(random, invoice, first, payments);
+            addPayment(random, invoice, total.subtract(first), payments);
+            invoice.setStatus(InvoiceStatus.PAID);
+        }
+    }
+
+    private static void addPayment(SplittableRandom random, Invoice invoice, BigDecimal amount, List<Payment> payments) {
+        Payment payment = Payment.builder()
+            .id((long) payments.size() + 1)
+            .amount(amount)
+            .paymentDate(invoice.getIssueDate().atTime(8 + random.nextInt(10), random.nextInt(60)))
+            .paymentMethod(METHODS[random.nextInt(METHODS.length)])
+            .recordedBy("benchmark")
+            .build();
+        invoice.addPayment(payment);
+        payments.add(payment);
+    }
+
+    private static BigDecimal money(SplittableRandom random, int min, int max) {
+        return BigDecimal.valueOf(min * 100L + random.nextInt((max - min) * 100), 2);
+    }
+
+    public List<ServiceOrder> serviceOrders() {
+        return serviceOrders;
+    }
+
+    public List<Invoice> invoices() {
+        return invoices;
+    }
+
+    public List<Payment> payments() {
+        return payments;
+    }
+
+    /**
+     * Mesma forma da projeção JPQL usada nas exportações em streaming.
+     */
+    public List<InvoiceDTO> invoiceProjections() {
+        List<InvoiceDTO> projections = new ArrayList<>(invoices.size());
+        for (Invoice invoice : invoices) {
+            ServiceOrder order = invoice.getServiceOrder();
+            Customer customer = invoice.getCustomer();
+            projections.add(new InvoiceDTO(invoice.getId(), invoice.getInvoiceNumber(), invoice.getIssueDate(),
+                invoice.getStatus(), order.getId(), order.getOrderNumber(), customer.getId(), customer.getName(),
+                customer.getPhone(), invoice.getTotalValue(), invoice.getPaidAmount()));
+        }
+        return projections;
+    }
+
+    public BigDecimal totalReceived() {
+        return payments.stream().map(Payment::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public Map<PaymentMethod, BigDecimal> receivedByMethod() {
+        Map<PaymentMethod, BigDecimal> totals = new EnumMap<>(PaymentMethod.class);
+        for (Payment payment : payments) {
+            totals.merge(payment.getPaymentMethod(), payment.getAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+}
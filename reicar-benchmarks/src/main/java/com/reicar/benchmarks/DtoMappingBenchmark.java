@@ -0,0 +1,46 @@
+package com.reicar.benchmarks;
+
+import com.reicar.dtos.InvoiceDTO;
+import com.reicar.dtos.PaymentDTO;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.Payment;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade → DTO usada pelas listagens e relatórios ({@code InvoiceDTO.from} inclui os pagamentos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DtoMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int invoiceCount;
+
+    private BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkData.generate(invoiceCount, 3);
+    }
+
+    @Benchmark
+    public void invoiceDtoFrom(Blackhole blackhole) {
+        for (Invoice invoice : data.invoices()) {
+            blackhole.consume(InvoiceDTO.from(invoice));
+        }
+    }
+
+    @Benchmark
+    public void paymentDtoFrom(Blackhole blackhole) {
+        for (Payment payment : data.payments()) {
+            blackhole.consume(PaymentDTO.from(payment));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.reicar.benchmarks;
+
+import com.reicar.dtos.InvoiceDTO;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.entities.enums.PaymentMethod;
+import com.reicar.repositories.ArchivedInvoiceRepository;
+import com.reicar.repositories.ArchivedPaymentRepository;
+import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.DailyRevenueRollupRepository;
+import com.reicar.repositories.FinancialArchiveYearRepository;
+import com.reicar.repositories.InvoiceRepository;
+import com.reicar.repositories.PaymentRepository;
+import com.reicar.services.FinancialArchiveCatalog;
+import com.reicar.services.KpiCounters;
+import com.reicar.services.PdfExportService;
+import com.reicar.services.ReportService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta {@link ReportService} e {@link PdfExportService} reais sobre repositórios em memória,
+ * respondendo às consultas do relatório de receitas com os dados de {@link BenchmarkData}.
+ */
+final class ReportFixture {
+
+    final BenchmarkData data;
+    final ReportService reportService;
+    final PdfExportService pdfExportService;
+
+    ReportFixture(BenchmarkData data) {
+        this.data = data;
+
+        List<InvoiceDTO> projections = data.invoiceProjections();
+        List<Object[]> statusSummary = summarizeByStatus(data.invoices());
+        BigDecimal totalReceived = data.totalReceived();
+        List<Object[]> receivedByMethod = new ArrayList<>();
+        data.receivedByMethod().forEach((method, amount) -> receivedByMethod.add(new Object[]{method, amount}));
+
+        InvoiceRepository invoiceRepository = RepositoryStubs.stub(InvoiceRepository.class, Map.of(
+            "findByIssueDateBetween", args -> data.invoices(),
+            "streamByIssueDateBetween", args -> projections.stream(),
+            "summarizeByStatusBetweenDates", args -> statusSummary
+        ));
+        DailyRevenueRollupRepository rollupRepository = RepositoryStubs.stub(DailyRevenueRollupRepository.class, Map.of(
+            "sumBetweenDates", args -> totalReceived,
+            "sumByPaymentMethodBetweenDates", args -> receivedByMethod
+        ));
+        // Catálogo de arquivo nunca carregado: o relatório não consulta as tabelas de arquivo
+        ArchivedInvoiceRepository archivedInvoiceRepository = RepositoryStubs.stub(ArchivedInvoiceRepository.class, Map.of());
+        ArchivedPaymentRepository archivedPaymentRepository = RepositoryStubs.stub(ArchivedPaymentRepository.class, Map.of());
+        FinancialArchiveCatalog archiveCatalog = new FinancialArchiveCatalog(
+            RepositoryStubs.stub(FinancialArchiveYearRepository.class, Map.of()));
+        // Só o resumo do dashboard lê os contadores; o relatório de receitas nunca passa por eles
+        KpiCounters kpiCounters = new KpiCounters(invoiceRepository, rollupRepository);
+
+        this.reportService = new ReportService(
+            invoiceRepository,
+            RepositoryStubs.stub(PaymentRepository.class, Map.of()),
+            RepositoryStubs.stub(CustomerRepository.class, Map.of()),
+            rollupRepository,
+            archivedInvoiceRepository,
+            archivedPaymentRepository,
+            archiveCatalog,
+            kpiCounters
+        );
+        this.pdfExportService = new PdfExportService(reportService);
+    }
+
+    private static List<Object[]> summarizeByStatus(List<Invoice> invoices) {
+        Map<InvoiceStatus, Object[]> rows = new EnumMap<>(InvoiceStatus.class);
+        for (Invoice invoice : invoices) {
+            Object[] row = rows.computeIfAbsent(invoice.getStatus(),
+                status -> new Object[]{status, 0L, BigDecimal.ZERO, BigDecimal.ZERO});
+            row[1] = (Long) row[1] + 1;
+            row[2] = ((BigDecimal) row[2]).add(invoice.getTotalValue());
+            row[3] = ((BigDecimal) row[3]).add(invoice.getRemainingBalance());
+        }
+        return new ArrayList<>(rows.values());
+    }
+}
@@ -0,0 +1,34 @@
+package com.reicar.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Implementações em memória das interfaces de repositório: só os métodos informados respondem,
+ * os demais falham, para que um benchmark nunca meça um caminho que não foi preparado.
+ */
+final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+            (self, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    return switch (method.getName()) {
+                        case "equals" -> self == args[0];
+                        case "hashCode" -> System.identityHashCode(self);
+                        default -> repositoryType.getSimpleName() + " (stub)";
+                    };
+                }
+                Function<Object[], Object> answer = answers.get(method.getName());
+                if (answer == null) {
+                    throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + method.getName());
+                }
+                return answer.apply(args);
+            });
+        return repositoryType.cast(proxy);
+    }
+}
@@ -0,0 +1,54 @@
+package com.reicar.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static com.reicar.benchmarks.BenchmarkData.END_DATE;
+import static com.reicar.benchmarks.BenchmarkData.START_DATE;
+
+/**
+ * Exportações do relatório de receitas (CSV e PDF), em memória e em streaming, sobre repositórios
+ * em memória: mede só a montagem do relatório e a renderização, sem banco.
+ * PDF é ordens de grandeza mais lento que CSV; para 1M de faturas use apenas os benchmarks de CSV.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class RevenueReportExportBenchmark {
+
+    @Param({"1000", "10000"})
+    public int invoiceCount;
+
+    private ReportFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new ReportFixture(BenchmarkData.generate(invoiceCount, 3));
+    }
+
+    @Benchmark
+    public String generateRevenueReportCsv() {
+        return fixture.reportService.generateRevenueReportCsv(START_DATE, END_DATE);
+    }
+
+    @Benchmark
+    public void writeRevenueReportCsv() throws IOException {
+        fixture.reportService.writeRevenueReportCsv(START_DATE, END_DATE, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public byte[] generateRevenueReportPdf() {
+        return fixture.pdfExportService.generateRevenueReportPdf(START_DATE, END_DATE);
+    }
+
+    @Benchmark
+    public void writeRevenueReportPdf() {
+        fixture.pdfExportService.writeRevenueReportPdf(START_DATE, END_DATE, OutputStream.nullOutputStream());
+    }
+}
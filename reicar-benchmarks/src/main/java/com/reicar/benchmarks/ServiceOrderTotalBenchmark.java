@@ -0,0 +1,40 @@
+package com.reicar.benchmarks;
+
+import com.reicar.entities.ServiceOrder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ServiceOrder#calculateTotalValue()} sobre todas as ordens do conjunto sintético.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ServiceOrderTotalBenchmark {
+
+    @Param({"1000", "100000"})
+    public int invoiceCount;
+
+    @Param({"3"})
+    public int itemsPerOrder;
+
+    private BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkData.generate(invoiceCount, itemsPerOrder);
+    }
+
+    @Benchmark
+    public void calculateTotalValue(Blackhole blackhole) {
+        for (ServiceOrder order : data.serviceOrders()) {
+            order.calculateTotalValue();
+            blackhole.consume(order.getTotalValue());
+        }
+    }
+}
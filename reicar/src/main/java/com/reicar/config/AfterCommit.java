@@ -0,0 +1,42 @@
+package com.reicar.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ações que só podem ficar visíveis depois do commit da transação corrente (caches, contadores, filas).
+ * Fora de uma transação não há commit a esperar, então a ação roda na hora.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Roda a ação após o commit; sem transação ativa, imediatamente. Num rollback, nunca roda.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Roda a ação agora e de novo após o commit, para invalidações: a primeira execução evita servir o
+     * valor antigo durante a transação e a segunda descarta o que uma leitura concorrente recarregou
+     * antes do commit.
+     */
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            run(action);
+        }
+    }
+}
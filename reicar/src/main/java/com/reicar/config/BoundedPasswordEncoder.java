@@ -0,0 +1,108 @@
+package com.reicar.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Executa o hash de senhas (BCrypt) em um pool dedicado e limitado.
+ * Em picos de login no máximo {@code threads} hashes rodam ao mesmo tempo e a fila é limitada:
+ * as threads do Tomcat aguardam o resultado, mas a CPU não é tomada pelo BCrypt e,
+ * com a fila cheia, a tentativa é recusada na hora em vez de acumular espera.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    static final String EXECUTOR_NAME = "password-hashing";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(EXECUTOR_NAME + "-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME);
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.rejectedCounter = Counter.builder("reicar.password.hashing.rejected")
+            .description("Operações de hash recusadas por fila cheia ou tempo esgotado")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> submit(() -> delegate.encode(rawPassword),
+            () -> new IllegalStateException("Servidor ocupado processando senhas. Tente novamente em instantes.")));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = matchesTimer.record(() -> submit(() -> delegate.matches(rawPassword, encodedPassword),
+            () -> new AuthenticationServiceException("Muitos acessos simultâneos. Tente novamente em instantes.")));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    /**
+     * Só lê o custo gravado no hash, sem calcular BCrypt; roda na própria thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task, Supplier<RuntimeException> busy) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw busy.get();
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw busy.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("reicar.password.hashing")
+            .description("Tempo de hash de senha, incluindo a espera na fila")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
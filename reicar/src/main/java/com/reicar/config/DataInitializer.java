@@ -21,15 +21,8 @@ public class DataInitializer {
     @Bean
     public ApplicationRunner initAdminUser() {
         return args -> {
-            var existingAdmin = userRepository.findByUsername("admin");
-            if (existingAdmin.isPresent()) {
-                User admin = existingAdmin.get();
-                if (!passwordEncoder.matches("admin123", admin.getPassword())) {
-                    admin.setPassword(passwordEncoder.encode("admin123"));
-                    userRepository.save(admin);
-                    log.info("Admin password has been reset to default");
-                }
-            } else {
+            // Só cria o admin padrão na primeira execução: nenhum hash BCrypt é calculado nos demais boots
+            if (!userRepository.existsByUsername("admin")) {
                 User admin = User.builder()
                     .username("admin")
                     .password(passwordEncoder.encode("admin123"))
@@ -0,0 +1,52 @@
+package com.reicar.config;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Resposta HTTP dos PDFs guardados em {@link com.reicar.services.GeneratedDocumentStore}.
+ * A versão do documento vai como ETag: um {@code If-None-Match} igual responde 304 antes de qualquer
+ * leitura do arquivo, e o corpo como {@link Resource} permite downloads parciais ({@code Range}).
+ * {@code no-cache} faz o navegador revalidar a cada download em vez de usar uma cópia vencida;
+ * sem ele, o cabeçalho padrão do Spring Security ({@code no-store}) impediria o 304.
+ */
+public final class DocumentDownloads {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private DocumentDownloads() {
+    }
+
+    @FunctionalInterface
+    public interface DocumentSource {
+        Path get() throws IOException;
+    }
+
+    /**
+     * Devolve o PDF da versão informada; {@code null} quando o cliente já tem essa versão (a resposta 304 já foi preparada).
+     */
+    public static ResponseEntity<Resource> pdf(ServletWebRequest request, String version, String filename,
+                                               DocumentSource document) throws IOException {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+        }
+        if (request.checkNotModified(version)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+            .eTag(version)
+            .cacheControl(CACHE_CONTROL)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .contentType(MediaType.APPLICATION_PDF)
+            .body(new FileSystemResource(document.get()));
+    }
+}
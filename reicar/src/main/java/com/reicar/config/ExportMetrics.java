@@ -0,0 +1,64 @@
+package com.reicar.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Distribuição do tamanho (bytes) dos arquivos exportados, por relatório e formato.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Envolve a escrita da exportação contando os bytes enviados; o tamanho é registrado ao final.
+     */
+    public StreamingResponseBody measured(String report, String format, StreamingResponseBody body) {
+        return outputStream -> {
+            CountingOutputStream counting = new CountingOutputStream(outputStream);
+            body.writeTo(counting);
+            record(report, format, counting.count);
+        };
+    }
+
+    public void record(String report, String format, long bytes) {
+        DistributionSummary.builder("reicar.export.size")
+            .description("Tamanho dos arquivos exportados")
+            .baseUnit("bytes")
+            .tag("report", report)
+            .tag("format", format)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(bytes);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.reicar.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um ponto de entrada de serviço para o timer "reicar.service" ({@link ServiceMetricsAspect}).
+ * Só vale em chamadas vindas de outro bean (proxy do Spring), não de dentro da própria classe.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Measured {
+}
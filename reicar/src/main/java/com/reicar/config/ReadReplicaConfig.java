@@ -0,0 +1,76 @@
+package com.reicar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Ativada quando {@code reicar.datasource.replica.url} está definida: dois pools (primário com as
+ * propriedades {@code spring.datasource.*} e réplica com {@code reicar.datasource.replica.*}) atrás do
+ * {@link ReplicaRoutingDataSource}. Sem a URL, o Spring Boot cria o pool único de sempre.
+ */
+@Configuration
+@ConditionalOnExpression("!'${reicar.datasource.replica.url:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("reicar-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("reicar.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${reicar.datasource.replica.url}") String url,
+                                              @Value("${reicar.datasource.replica.username:}") String username,
+                                              @Value("${reicar.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username.isBlank() ? properties.determineUsername() : username)
+            .password(username.isBlank() ? properties.determinePassword() : password)
+            .build();
+        dataSource.setPoolName("reicar-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica,
+                                                             @Value("${reicar.datasource.replica.read-your-writes:10s}") Duration readYourWrites,
+                                                             MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primary, replica, readYourWrites, meterRegistry);
+    }
+
+    // Adia a obtenção da conexão até o primeiro comando, quando a transação já sabe se é somente leitura
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaRoutingDataSource routingDataSource,
+                                               @Value("${reicar.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                                               @Value("${reicar.datasource.replica.max-lag:5s}") Duration maxLag) {
+        return new ReplicaLagMonitor(replica, routingDataSource, lagQuery, maxLag);
+    }
+}
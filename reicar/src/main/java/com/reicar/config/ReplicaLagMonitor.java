@@ -0,0 +1,60 @@
+package com.reicar.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Verifica periodicamente a réplica com {@code reicar.datasource.replica.lag-query}
+ * (padrão {@code SHOW REPLICA STATUS}) e tira a réplica de uso se ela não responde, se a replicação
+ * parou ou se o atraso passa de {@code max-lag}. Sem linha de status (banco que não é réplica, como
+ * uma segunda instância local) ou com a consulta vazia, basta a réplica responder.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaRoutingDataSource routingDataSource, String lagQuery, Duration maxLag) {
+        this.replica = replica;
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${reicar.datasource.replica.lag-check-interval:10s}")
+    public void check() {
+        routingDataSource.setReplicaAvailable(isReplicaUsable());
+    }
+
+    boolean isReplicaUsable() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet status = statement.executeQuery(lagQuery)) {
+                if (!status.next()) {
+                    return true;
+                }
+                // Nulo quando a replicação está parada
+                Object secondsBehind = status.getObject("Seconds_Behind_Source");
+                return secondsBehind != null && ((Number) secondsBehind).longValue() <= maxLag.toSeconds();
+            }
+        } catch (SQLException e) {
+            log.debug("Falha ao verificar a réplica: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.reicar.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Envia transações {@code readOnly} à réplica e o restante (escritas, código sem transação) ao primário.
+ * Depois de uma escrita confirmada, as leituras do mesmo usuário ficam no primário por
+ * {@code reicar.datasource.replica.read-your-writes}, para ele ver o que acabou de gravar mesmo com atraso
+ * de replicação. Com a réplica indisponível ou atrasada ({@link ReplicaLagMonitor}), tudo vai ao primário.
+ * Precisa estar dentro de um {@code LazyConnectionDataSourceProxy}: a conexão só pode ser escolhida
+ * depois que a transação marcou se é somente leitura.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final long readYourWritesNanos;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final Map<Target, Counter> routed = new ConcurrentHashMap<>();
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        for (Target target : Target.values()) {
+            routed.put(target, Counter.builder("reicar.datasource.routed")
+                .description("Conexões entregues por destino (primário ou réplica)")
+                .tag("target", target.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+
+    public void setReplicaAvailable(boolean available) {
+        if (replicaAvailable != available) {
+            log.warn(available ? "Réplica disponível: leituras voltam para a réplica" : "Réplica indisponível ou atrasada: leituras vão ao primário");
+        }
+        replicaAvailable = available;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = resolveTarget();
+        routed.get(target).increment();
+        return target;
+    }
+
+    private Target resolveTarget() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteAfterCommit(username);
+            return Target.PRIMARY;
+        }
+        if (!replicaAvailable || wroteRecently(username)) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    private void rememberWriteAfterCommit(String username) {
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        AfterCommit.run(() -> lastWriteByUser.put(username, System.nanoTime()));
+    }
+
+    private boolean wroteRecently(String username) {
+        if (username == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteByUser.get(username);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < readYourWritesNanos) {
+            return true;
+        }
+        lastWriteByUser.remove(username, writtenAt);
+        return false;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.reicar.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mede a latência dos pontos de entrada de serviço marcados com {@link Measured} (timer "reicar.service").
+ * Leituras em memória (contadores de KPI, caches, configuração) ficam de fora: não precisam de timer
+ * e o custo da medição seria maior que o da chamada. Controllers e repositórios já são medidos pelo
+ * Spring Boot (http.server.requests e spring.data.repository.invocations). O histograma para percentis
+ * é ligado em management.metrics.distribution.percentiles-histogram.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "reicar.service";
+
+    private final MeterRegistry meterRegistry;
+
+    // Timer de sucesso por método, evitando montar o timer a cada chamada
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.reicar.config.Measured)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(timers.computeIfAbsent(method(joinPoint), method -> timer(joinPoint, "none")));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(timer(joinPoint, e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(METRIC_NAME)
+            .description("Tempo de execução dos métodos de serviço")
+            .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+            .tag("method", joinPoint.getSignature().getName())
+            .tag("exception", exception)
+            .register(meterRegistry);
+    }
+
+    private static Method method(ProceedingJoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    }
+}
@@ -0,0 +1,119 @@
+package com.reicar.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta virtual threads presas à thread carregadora (pinning) via evento JFR
+ * {@code jdk.VirtualThreadPinned}: bloqueio de I/O dentro de {@code synchronized} ou código nativo.
+ * Cada ocorrência vira métrica ({@code reicar.virtual.threads.pinned}, por componente: JDBC, OpenPDF...)
+ * e a primeira de cada pilha distinta é registrada no log com os frames relevantes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "reicar.threads.pinning-monitor.enabled"}, havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final int MAX_LOGGED_STACKS = 200;
+
+    // Primeiro pacote conhecido encontrado na pilha define o componente responsável
+    private static final List<PinningSource> SOURCES = List.of(
+        new PinningSource("com.mysql.", "jdbc-driver"),
+        new PinningSource("com.zaxxer.hikari.", "jdbc-pool"),
+        new PinningSource("org.hibernate.", "hibernate"),
+        new PinningSource("com.lowagie.", "openpdf"),
+        new PinningSource("org.apache.catalina.", "tomcat"),
+        new PinningSource("org.apache.coyote.", "tomcat"),
+        new PinningSource("com.reicar.", "application")
+    );
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> loggedStacks = ConcurrentHashMap.newKeySet();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${reicar.threads.pinning-monitor.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(EVENT).withStackTrace().withThreshold(threshold);
+        recording.onEvent(EVENT, this::record);
+        recording.startAsync();
+        stream = recording;
+        log.info("Monitor de pinning de virtual threads ativo (limite {})", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String component = componentOf(frames);
+
+        Timer.builder("reicar.virtual.threads.pinned")
+            .description("Tempo em que uma virtual thread ficou presa à thread carregadora")
+            .tag("component", component)
+            .register(meterRegistry)
+            .record(event.getDuration());
+
+        String stack = frames.stream()
+            .limit(LOGGED_FRAMES)
+            .map(VirtualThreadPinningMonitor::describe)
+            .collect(Collectors.joining("\n\t"));
+        if (loggedStacks.size() < MAX_LOGGED_STACKS && loggedStacks.add(stack)) {
+            log.warn("Virtual thread presa por {} ms ({}):\n\t{}", event.getDuration().toMillis(), component, stack);
+        }
+    }
+
+    private static String componentOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            for (PinningSource source : SOURCES) {
+                if (type.startsWith(source.packagePrefix())) {
+                    return source.component();
+                }
+            }
+        }
+        return "other";
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private record PinningSource(String packagePrefix, String component) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.reicar.controllers;
+
+import com.reicar.services.ServiceOrderImportReader;
+import com.reicar.services.ServiceOrderImportService;
+import com.reicar.services.ServiceOrderImportService.ImportRun;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.util.List;
+
+@Controller
+@RequestMapping("/admin/import")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminImportController {
+
+    private final ServiceOrderImportService importService;
+
+    @GetMapping
+    public String showImports(Model model) {
+        List<ImportRun> runs = importService.findRecent();
+
+        model.addAttribute("runs", runs);
+        model.addAttribute("hasActiveRuns", runs.stream().anyMatch(ImportRun::isActive));
+        model.addAttribute("csvColumns", String.join(";", ServiceOrderImportReader.CSV_COLUMNS));
+
+        return "admin/import";
+    }
+
+    @PostMapping
+    public String startImport(@RequestParam("file") MultipartFile file,
+                              @AuthenticationPrincipal UserDetails userDetails,
+                              RedirectAttributes redirectAttributes) throws IOException {
+        try {
+            ImportRun run = importService.start(file, userDetails.getUsername());
+            redirectAttributes.addFlashAttribute("successMessage",
+                "Importação #" + run.getId() + " iniciada (" + run.getFormat() + ").");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return "redirect:/admin/import";
+    }
+
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<byte[]> downloadErrors(@PathVariable long id) {
+        ImportRun run = importService.findById(id);
+
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"importacao_" + id + "_erros.csv\"")
+            .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+            .body(importService.errorReportCsv(run));
+    }
+}
@@ -1,7 +1,6 @@
 package com.reicar.controllers;
 
-import com.reicar.entities.SystemConfig;
-import com.reicar.repositories.SystemConfigRepository;
+import com.reicar.services.SystemConfigService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
@@ -15,11 +14,11 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminSettingsController {
 
-    private final SystemConfigRepository configRepository;
+    private final SystemConfigService configService;
 
     @GetMapping
     public String showSettings(Model model) {
-        int warrantyDays = configRepository.getWarrantyDays();
+        int warrantyDays = configService.getWarrantyDays();
         model.addAttribute("warrantyDays", warrantyDays);
         return "admin/settings";
     }
@@ -31,11 +30,7 @@ public class AdminSettingsController {
             return "redirect:/admin/settings";
         }
 
-        SystemConfig config = configRepository.findById("warranty_days")
-            .orElse(new SystemConfig("warranty_days", "90", "Período de garantia em dias"));
-
-        config.setConfigValue(String.valueOf(warrantyDays));
-        configRepository.save(config);
+        configService.updateWarrantyDays(warrantyDays);
 
         redirectAttributes.addFlashAttribute("successMessage", "Período de garantia atualizado para " + warrantyDays + " dias");
         return "redirect:/admin/settings";
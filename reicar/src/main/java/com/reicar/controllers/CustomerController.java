@@ -2,6 +2,7 @@ package com.reicar.controllers;
 
 import com.reicar.entities.Customer;
 import com.reicar.repositories.CustomerRepository;
+import com.reicar.services.SearchService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,11 +18,12 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class CustomerController {
 
     private final CustomerRepository customerRepository;
+    private final SearchService searchService;
 
     @GetMapping
     public String listCustomers(@RequestParam(required = false) String search, Model model) {
         var customers = (search != null && !search.isBlank())
-                ? customerRepository.findByNameContainingIgnoreCase(search)
+                ? searchService.searchCustomers(search)
                 : customerRepository.findAll();
         model.addAttribute("customers", customers);
         model.addAttribute("search", search);
@@ -1,16 +1,21 @@
 package com.reicar.controllers;
 
-import com.reicar.repositories.ServiceOrderRepository;
+import com.reicar.dtos.DashboardPageDTO;
+import com.reicar.services.ServiceOrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
 
 @Controller
 @RequiredArgsConstructor
 public class DashboardController {
 
-    private final ServiceOrderRepository repository;
+    private final ServiceOrderService serviceOrderService;
 
     @GetMapping("/")
     public String home() {
@@ -18,9 +23,19 @@ public class DashboardController {
     }
 
     @GetMapping("/dashboard")
-    public String showDashboard(Model model) {
-        // Busca todas as OS
-        model.addAttribute("orders", repository.findAll());
+    public String showDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + ServiceOrderService.DEFAULT_DASHBOARD_PAGE_SIZE) int size,
+            Model model) {
+
+        // Página de OS por keyset e KPIs agregados no banco
+        DashboardPageDTO page = serviceOrderService.findDashboardPage(afterDate, afterId, size);
+
+        model.addAttribute("orders", page.orders());
+        model.addAttribute("page", page);
+        model.addAttribute("kpis", serviceOrderService.getDashboardKpis());
+        model.addAttribute("firstPage", afterDate == null || afterId == null);
         return "screens/dashboard";
     }
 }
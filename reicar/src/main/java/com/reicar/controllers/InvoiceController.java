@@ -5,6 +5,10 @@ import com.reicar.entities.Invoice;
 import com.reicar.entities.enums.InvoiceStatus;
 import com.reicar.services.InvoiceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,7 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/invoices")
@@ -23,6 +27,10 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('ADMIN', 'MECHANIC')")
 public class InvoiceController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    // Colunas liberadas para ordenação (todas indexadas ou de desempate barato)
+    private static final Set<String> SORTABLE_FIELDS = Set.of("issueDate", "invoiceNumber", "totalValue", "status");
+
     private final InvoiceService invoiceService;
 
     @GetMapping
@@ -30,16 +38,35 @@ public class InvoiceController {
             @RequestParam(required = false) InvoiceStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size,
+            @RequestParam(defaultValue = "issueDate") String sort,
+            @RequestParam(defaultValue = "desc") String dir,
             Model model) {
 
-        List<InvoiceDTO> invoices = invoiceService.findWithFilters(status, startDate, endDate, search);
+        if (!SORTABLE_FIELDS.contains(sort)) {
+            sort = "issueDate";
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(dir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Pageable pageable = PageRequest.of(
+            Math.max(page, 0),
+            Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+            Sort.by(direction, sort).and(Sort.by(direction, "id"))
+        );
+
+        Slice<InvoiceDTO> invoices = invoiceService.findWithFilters(status, startDate, endDate, customerId, search, pageable);
 
-        model.addAttribute("invoices", invoices);
+        model.addAttribute("invoices", invoices.getContent());
+        model.addAttribute("slice", invoices);
+        model.addAttribute("sort", sort);
+        model.addAttribute("dir", direction == Sort.Direction.ASC ? "asc" : "desc");
         model.addAttribute("statuses", InvoiceStatus.values());
         model.addAttribute("selectedStatus", status);
         model.addAttribute("startDate", startDate);
         model.addAttribute("endDate", endDate);
+        model.addAttribute("customerId", customerId);
         model.addAttribute("search", search);
 
         return "invoices/list";
@@ -86,10 +113,7 @@ public class InvoiceController {
     }
 
     @GetMapping("/by-customer/{customerId}")
-    public String listByCustomer(@PathVariable Long customerId, Model model) {
-        List<InvoiceDTO> invoices = invoiceService.findByCustomerId(customerId);
-        model.addAttribute("invoices", invoices);
-        model.addAttribute("customerId", customerId);
-        return "invoices/list";
+    public String listByCustomer(@PathVariable Long customerId) {
+        return "redirect:/invoices?customerId=" + customerId;
     }
 }
@@ -1,14 +1,19 @@
 package com.reicar.controllers;
 
+import com.reicar.config.DocumentDownloads;
+import com.reicar.config.ExportMetrics;
 import com.reicar.dtos.CustomerStatementDTO;
 import com.reicar.dtos.DailyRevenueDTO;
 import com.reicar.dtos.DashboardMetricsDTO;
 import com.reicar.dtos.RevenueReportDTO;
 import com.reicar.entities.Customer;
 import com.reicar.repositories.CustomerRepository;
+import com.reicar.services.GeneratedDocumentStore;
 import com.reicar.services.PdfExportService;
+import com.reicar.services.ReportCache;
 import com.reicar.services.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -17,7 +22,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -28,8 +37,11 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportCache reportCache;
     private final PdfExportService pdfExportService;
     private final CustomerRepository customerRepository;
+    private final ExportMetrics exportMetrics;
+    private final GeneratedDocumentStore documentStore;
 
     @GetMapping("/dashboard")
     @PreAuthorize("hasAnyRole('ADMIN', 'MECHANIC')")
@@ -56,7 +68,7 @@ public class ReportController {
             endDate = LocalDate.now();
         }
 
-        RevenueReportDTO report = reportService.generateRevenueReport(startDate, endDate);
+        RevenueReportDTO report = reportCache.getRevenueReport(startDate, endDate);
 
         model.addAttribute("report", report);
         model.addAttribute("startDate", startDate);
@@ -66,11 +78,13 @@ public class ReportController {
     }
 
     @GetMapping("/revenue/pdf")
-    public ResponseEntity<byte[]> exportRevenueReportPdf(
+    public ResponseEntity<StreamingResponseBody> exportRevenueReportPdf(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        byte[] pdfContent = pdfExportService.generateRevenueReportPdf(startDate, endDate);
+        // O PDF é escrito na resposta em blocos, sem montar o documento inteiro em memória
+        StreamingResponseBody pdfContent = exportMetrics.measured("revenue", "pdf", outputStream ->
+            pdfExportService.writeRevenueReportPdf(startDate, endDate, outputStream));
 
         String filename = String.format("relatorio-receitas-%s-%s.pdf", startDate, endDate);
 
@@ -81,11 +95,13 @@ public class ReportController {
     }
 
     @GetMapping("/revenue/csv")
-    public ResponseEntity<String> exportRevenueReportCsv(
+    public ResponseEntity<StreamingResponseBody> exportRevenueReportCsv(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        String csvContent = reportService.generateRevenueReportCsv(startDate, endDate);
+        // As linhas são escritas na resposta à medida que são lidas do banco
+        StreamingResponseBody csvContent = exportMetrics.measured("revenue", "csv", outputStream ->
+            reportService.writeRevenueReportCsv(startDate, endDate, outputStream));
 
         String filename = String.format("relatorio-receitas-%s-%s.csv", startDate, endDate);
 
@@ -116,7 +132,7 @@ public class ReportController {
             endDate = LocalDate.now();
         }
 
-        CustomerStatementDTO statement = reportService.generateCustomerStatement(customerId, startDate, endDate);
+        CustomerStatementDTO statement = reportCache.getCustomerStatement(customerId, startDate, endDate);
 
         model.addAttribute("statement", statement);
         model.addAttribute("startDate", startDate);
@@ -126,28 +142,32 @@ public class ReportController {
     }
 
     @GetMapping("/customer-statement/{customerId}/pdf")
-    public ResponseEntity<byte[]> exportCustomerStatementPdf(
+    public ResponseEntity<Resource> exportCustomerStatementPdf(
             @PathVariable Long customerId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest request) throws IOException {
 
-        byte[] pdfContent = pdfExportService.generateCustomerStatementPdf(customerId, startDate, endDate);
+        // Lança EntityNotFoundException se o cliente não existir
+        String version = pdfExportService.customerStatementVersion(customerId, startDate, endDate);
 
         String filename = String.format("extrato-cliente-%d-%s-%s.pdf", customerId, startDate, endDate);
 
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-            .contentType(MediaType.APPLICATION_PDF)
-            .body(pdfContent);
+        return DocumentDownloads.pdf(request, version, filename, () ->
+            documentStore.getCustomerStatement(customerId, startDate, endDate, version,
+                exportMetrics.measured("customer-statement", "pdf", outputStream ->
+                    pdfExportService.writeCustomerStatementPdf(customerId, startDate, endDate, outputStream))::writeTo));
     }
 
     @GetMapping("/customer-statement/{customerId}/csv")
-    public ResponseEntity<String> exportCustomerStatementCsv(
+    public ResponseEntity<byte[]> exportCustomerStatementCsv(
             @PathVariable Long customerId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        String csvContent = reportService.generateCustomerStatementCsv(customerId, startDate, endDate);
+        byte[] csvContent = reportService.generateCustomerStatementCsv(customerId, startDate, endDate)
+            .getBytes(StandardCharsets.UTF_8);
+        exportMetrics.record("customer-statement", "csv", csvContent.length);
 
         String filename = String.format("extrato-cliente-%d-%s-%s.csv", customerId, startDate, endDate);
 
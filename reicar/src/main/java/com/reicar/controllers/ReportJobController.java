@@ -0,0 +1,84 @@
+package com.reicar.controllers;
+
+import com.reicar.entities.ReportJob;
+import com.reicar.entities.enums.ReportFormat;
+import com.reicar.entities.enums.ReportJobStatus;
+import com.reicar.entities.enums.ReportType;
+import com.reicar.services.ReportFileStore;
+import com.reicar.services.ReportJobService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Controller
+@RequestMapping("/reports/jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+    private final ReportFileStore reportFileStore;
+
+    @GetMapping
+    public String listJobs(@AuthenticationPrincipal UserDetails userDetails, Model model) {
+        List<ReportJob> jobs = reportJobService.findRecentByUser(userDetails.getUsername());
+
+        model.addAttribute("jobs", jobs);
+        model.addAttribute("hasActiveJobs", jobs.stream().anyMatch(job -> job.getStatus().isActive()));
+
+        return "reports/jobs";
+    }
+
+    @PostMapping
+    public String submitJob(
+            @RequestParam ReportType reportType,
+            @RequestParam ReportFormat format,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @AuthenticationPrincipal UserDetails userDetails,
+            RedirectAttributes redirectAttributes) {
+
+        try {
+            ReportJob job = reportJobService.submit(reportType, format, customerId, startDate, endDate, userDetails.getUsername());
+            redirectAttributes.addFlashAttribute("successMessage",
+                "Relatório #" + job.getId() + " na fila. O download fica disponível aqui quando terminar.");
+        } catch (IllegalArgumentException | EntityNotFoundException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return "redirect:/reports/jobs";
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        ReportJob job = reportJobService.findById(id);
+        if (job.getStatus() != ReportJobStatus.DONE || !job.getRequestedBy().equals(userDetails.getUsername())) {
+            throw new EntityNotFoundException("Relatório não disponível: " + id);
+        }
+
+        FileSystemResource file = new FileSystemResource(reportFileStore.resolve(job.getFilePath()));
+        if (!file.exists()) {
+            throw new EntityNotFoundException("Arquivo do relatório expirou: " + id);
+        }
+
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getDownloadFilename() + "\"")
+            .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+            .body(file);
+    }
+}
@@ -1,14 +1,19 @@
 package com.reicar.controllers;
 
+import com.reicar.config.DocumentDownloads;
+import com.reicar.config.ExportMetrics;
 import com.reicar.dtos.ServiceOrderDTO;
 import com.reicar.entities.ServiceOrder;
+import com.reicar.services.GeneratedDocumentStore;
 import com.reicar.services.PdfGeneratorService; // Importação necessária
 import com.reicar.services.ServiceOrderService;
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
@@ -20,6 +25,8 @@ public class ServiceOrderController {
 
     private final ServiceOrderService service;
     private final PdfGeneratorService pdfGeneratorService; // Injeção adicionada
+    private final ExportMetrics exportMetrics;
+    private final GeneratedDocumentStore documentStore;
 
     @GetMapping("/register")
     public String showForm(@RequestParam(name = "type", defaultValue = "MECHANIC") String type, Model model) {
@@ -36,13 +43,13 @@ public class ServiceOrderController {
     }
 
     @GetMapping("/export-pdf/{id}")
-    public void exportToPDF(@PathVariable Long id, HttpServletResponse response) throws IOException {
-        response.setContentType("application/pdf");
-        String headerKey = "Content-Disposition";
-        String headerValue = "attachment; filename=OS_Reicar_" + id + ".pdf";
-        response.setHeader(headerKey, headerValue);
-
+    public ResponseEntity<Resource> exportToPDF(@PathVariable Long id, ServletWebRequest request) throws IOException {
         ServiceOrder order = service.findById(id); // Recupera com JOIN FETCH via repositório
-        pdfGeneratorService.export(response, order);
+        String version = pdfGeneratorService.contentVersion(order);
+
+        // Gera o PDF só quando essa versão ainda não está guardada em disco
+        return DocumentDownloads.pdf(request, version, "OS_Reicar_" + id + ".pdf", () ->
+            documentStore.getServiceOrder(id, version,
+                exportMetrics.measured("service-order", "pdf", outputStream -> pdfGeneratorService.export(outputStream, order))::writeTo));
     }
 }
\ No newline at end of file
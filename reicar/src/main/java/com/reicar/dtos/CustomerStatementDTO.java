@@ -4,6 +4,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
+/**
+ * Extrato do cliente no período. O saldo final ({@code balance}) parte do saldo anterior ao período,
+ * soma as faturas emitidas (exceto canceladas) e desconta os pagamentos recebidos no período.
+ */
 public record CustomerStatementDTO(
     Long customerId,
     String customerName,
@@ -15,6 +19,8 @@ public record CustomerStatementDTO(
     LocalDate generatedAt,
     List<InvoiceDTO> invoices,
     List<PaymentDTO> payments,
+    List<CustomerStatementEntryDTO> entries,
+    BigDecimal openingBalance,
     BigDecimal totalInvoiced,
     BigDecimal totalPaid,
     BigDecimal balance
@@ -0,0 +1,26 @@
+package com.reicar.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Linha da movimentação do extrato: fatura emitida (débito) ou pagamento recebido (crédito),
+ * com o saldo acumulado calculado no banco.
+ */
+public record CustomerStatementEntryDTO(
+    LocalDateTime entryDate,
+    String entryType,
+    Long invoiceId,
+    String invoiceNumber,
+    String description,
+    BigDecimal debit,
+    BigDecimal credit,
+    BigDecimal runningBalance
+) {
+    public static final String INVOICE = "INVOICE";
+    public static final String PAYMENT = "PAYMENT";
+
+    public boolean isInvoice() {
+        return INVOICE.equals(entryType);
+    }
+}
@@ -0,0 +1,14 @@
+package com.reicar.dtos;
+
+import com.reicar.entities.ServiceOrder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DashboardPageDTO(
+    List<ServiceOrder> orders,
+    boolean hasNext,
+    LocalDate nextEntryDate,
+    Long nextId,
+    int size
+) {}
@@ -22,6 +22,27 @@ public record InvoiceDTO(
     BigDecimal remainingBalance,
     List<PaymentDTO> payments
 ) {
+    /**
+     * Construtor de projeção JPQL para listagens sem pagamentos (ex: exportação em streaming).
+     */
+    public InvoiceDTO(
+        Long id,
+        String invoiceNumber,
+        LocalDate issueDate,
+        InvoiceStatus status,
+        Long serviceOrderId,
+        String serviceOrderNumber,
+        Long customerId,
+        String customerName,
+        String customerPhone,
+        BigDecimal totalValue,
+        BigDecimal paidAmount
+    ) {
+        this(id, invoiceNumber, issueDate, status, serviceOrderId, serviceOrderNumber,
+            customerId, customerName, customerPhone, totalValue, paidAmount,
+            totalValue.subtract(paidAmount), List.of());
+    }
+
     public static InvoiceDTO from(Invoice invoice) {
         List<PaymentDTO> paymentDTOs = invoice.getPayments() != null
             ? invoice.getPayments().stream().map(PaymentDTO::from).toList()
@@ -17,6 +17,23 @@ public record PaymentDTO(
     String paymentMethodDisplay,
     String recordedBy
 ) {
+    /**
+     * Construtor de projeção JPQL para leituras em streaming.
+     */
+    public PaymentDTO(
+        Long id,
+        Long invoiceId,
+        String invoiceNumber,
+        String customerName,
+        BigDecimal amount,
+        LocalDateTime paymentDate,
+        PaymentMethod paymentMethod,
+        String recordedBy
+    ) {
+        this(id, invoiceId, invoiceNumber, customerName, amount, paymentDate, paymentMethod,
+            paymentMethod != null ? paymentMethod.getDisplayName() : null, recordedBy);
+    }
+
     public static PaymentDTO from(Payment payment) {
         return new PaymentDTO(
             payment.getId(),
@@ -0,0 +1,34 @@
+package com.reicar.dtos;
+
+import java.util.List;
+
+/**
+ * Resultado da busca textual: clientes cujo nome casou e faturas cujo número casou.
+ * Quando o índice FULLTEXT não dá uma resposta exata (termo curto demais ou ids acima do limite),
+ * {@code text} traz o texto buscado e o filtro volta a ser por trecho (LIKE) no nome e no número.
+ */
+public record SearchMatchesDTO(
+    List<Long> customerIds,
+    List<Long> invoiceIds,
+    String text
+) {
+    public static SearchMatchesDTO empty() {
+        return new SearchMatchesDTO(List.of(), List.of(), null);
+    }
+
+    public static SearchMatchesDTO of(List<Long> customerIds, List<Long> invoiceIds) {
+        return new SearchMatchesDTO(customerIds, invoiceIds, null);
+    }
+
+    public static SearchMatchesDTO byText(String text) {
+        return new SearchMatchesDTO(List.of(), List.of(), text);
+    }
+
+    public boolean isByText() {
+        return text != null;
+    }
+
+    public boolean isEmpty() {
+        return !isByText() && customerIds.isEmpty() && invoiceIds.isEmpty();
+    }
+}
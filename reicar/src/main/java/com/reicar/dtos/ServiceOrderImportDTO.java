@@ -0,0 +1,28 @@
+package com.reicar.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Uma OS lida do arquivo de importação (CSV ou NDJSON), ainda não validada.
+ */
+public record ServiceOrderImportDTO(
+        String orderNumber,
+        String type,
+        LocalDate entryDate,
+        String status,
+        String customerName,
+        String customerPhone,
+        String customerCity,
+        String customerState,
+        BigDecimal serviceValue,
+        String technicalDiagnosis,
+        Integer vehicleKm,
+        String tirePosition,
+        List<ServiceItemDTO> items
+) {
+    public ServiceOrderImportDTO {
+        items = items != null ? items : List.of();
+    }
+}
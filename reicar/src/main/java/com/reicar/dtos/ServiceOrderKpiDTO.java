@@ -0,0 +1,21 @@
+package com.reicar.dtos;
+
+import com.reicar.entities.enums.ServiceStatus;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record ServiceOrderKpiDTO(
+    Long orderCount,
+    BigDecimal totalValue,
+    BigDecimal serviceValue,
+    Map<ServiceStatus, Long> countsByStatus
+) {
+    public long countOf(ServiceStatus status) {
+        return countsByStatus.getOrDefault(status, 0L);
+    }
+
+    public BigDecimal partsValue() {
+        return totalValue.subtract(serviceValue);
+    }
+}
@@ -0,0 +1,59 @@
+package com.reicar.entities;
+
+import com.reicar.entities.enums.InvoiceStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fatura de um ano encerrado, movida de {@code invoices} pelo arquivamento. Somente leitura:
+ * as linhas são gravadas por INSERT ... SELECT em {@code ArchivedInvoiceRepository}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Immutable
+@Table(name = "invoices_archive")
+public class ArchivedInvoice {
+
+    @Id
+    private Long id;
+
+    @Column(name = "invoice_number", nullable = false, length = 30)
+    private String invoiceNumber;
+
+    @Column(name = "issue_date", nullable = false)
+    private LocalDate issueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InvoiceStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "service_order_id", nullable = false)
+    private ServiceOrder serviceOrder;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
+
+    @Column(name = "total_value", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalValue;
+
+    @Column(name = "paid_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal paidAmount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
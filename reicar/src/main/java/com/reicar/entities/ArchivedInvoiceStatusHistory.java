@@ -0,0 +1,41 @@
+package com.reicar.entities;
+
+import com.reicar.entities.enums.InvoiceStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Histórico de situação de uma fatura arquivada ({@link ArchivedInvoice}). Somente leitura.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Immutable
+@Table(name = "invoice_status_history_archive")
+public class ArchivedInvoiceStatusHistory {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id", nullable = false)
+    private ArchivedInvoice invoice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", nullable = false, length = 20)
+    private InvoiceStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false, length = 20)
+    private InvoiceStatus newStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "changed_by", length = 100)
+    private String changedBy;
+}
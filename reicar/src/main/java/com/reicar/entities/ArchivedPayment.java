@@ -0,0 +1,44 @@
+package com.reicar.entities;
+
+import com.reicar.entities.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pagamento de uma fatura arquivada ({@link ArchivedInvoice}). Somente leitura.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Immutable
+@Table(name = "payments_archive")
+public class ArchivedPayment {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id", nullable = false)
+    private ArchivedInvoice invoice;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "payment_date", nullable = false)
+    private LocalDateTime paymentDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "recorded_by", length = 100)
+    private String recordedBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -2,13 +2,22 @@ package com.reicar.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+
+import java.text.Normalizer;
+import java.util.Locale;
 
 @Entity
 @Data
+@BatchSize(size = 100)
 @Table(name = "customers")
 public class Customer {
+    private static final int MIN_PHONE_DIGITS = 8;
+
+    // Ids reservados em blocos (ver V16): permite inserts em lote na importação
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 500)
     private Long id;
 
     private String name;
@@ -16,4 +25,40 @@ public class Customer {
     private String city;
     @Column(columnDefinition = "CHAR(2)")
     private String state;
+
+    // Telefone + nome normalizados; identifica o mesmo cliente em novos atendimentos
+    @Column(name = "lookup_key", length = 191)
+    private String lookupKey;
+
+    @PrePersist
+    @PreUpdate
+    void updateLookupKey() {
+        lookupKey = lookupKeyOf(name, phone);
+    }
+
+    /**
+     * Chave de deduplicação: dígitos do telefone (sem o DDI 55) + "|" + nome sem acentos,
+     * em minúsculas e com espaços simples. Sem telefone utilizável devolve null (o cliente nunca é reaproveitado).
+     */
+    public static String lookupKeyOf(String name, String phone) {
+        if (name == null || phone == null) {
+            return null;
+        }
+
+        String digits = phone.replaceAll("\\D", "");
+        if ((digits.length() == 12 || digits.length() == 13) && digits.startsWith("55")) {
+            digits = digits.substring(2);
+        }
+
+        String normalizedName = Normalizer.normalize(name, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .replaceAll("\\s+", " ")
+            .trim()
+            .toLowerCase(Locale.ROOT);
+
+        if (digits.length() < MIN_PHONE_DIGITS || normalizedName.isEmpty()) {
+            return null;
+        }
+        return digits + "|" + normalizedName;
+    }
 }
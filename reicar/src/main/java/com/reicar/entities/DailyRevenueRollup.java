@@ -0,0 +1,34 @@
+package com.reicar.entities;
+
+import com.reicar.entities.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(DailyRevenueRollupId.class)
+@Table(name = "daily_revenue_rollup")
+public class DailyRevenueRollup {
+
+    @Id
+    @Column(name = "revenue_date")
+    private LocalDate revenueDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", length = 20)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "payment_count", nullable = false)
+    private Integer paymentCount;
+}
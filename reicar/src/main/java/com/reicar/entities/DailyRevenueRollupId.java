@@ -0,0 +1,18 @@
+package com.reicar.entities;
+
+import com.reicar.entities.enums.PaymentMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenueRollupId implements Serializable {
+
+    private LocalDate revenueDate;
+    private PaymentMethod paymentMethod;
+}
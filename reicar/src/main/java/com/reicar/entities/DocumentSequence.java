@@ -0,0 +1,26 @@
+package com.reicar.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(DocumentSequenceId.class)
+@Table(name = "document_sequences")
+public class DocumentSequence {
+
+    @Id
+    @Column(name = "sequence_name", length = 30)
+    private String sequenceName;
+
+    @Id
+    @Column(name = "sequence_year")
+    private Integer sequenceYear;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,16 @@
+package com.reicar.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSequenceId implements Serializable {
+
+    private String sequenceName;
+    private Integer sequenceYear;
+}
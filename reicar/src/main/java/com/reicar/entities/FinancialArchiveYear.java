@@ -0,0 +1,41 @@
+package com.reicar.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumo de um ano arquivado: quantas linhas foram movidas e até quando vão os pagamentos
+ * arquivados (uma fatura do ano pode ter sido paga no ano seguinte).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "financial_archive_years")
+public class FinancialArchiveYear {
+
+    @Id
+    @Column(name = "archive_year")
+    private Integer archiveYear;
+
+    @Column(name = "invoice_count", nullable = false)
+    private int invoiceCount;
+
+    @Column(name = "payment_count", nullable = false)
+    private int paymentCount;
+
+    @Column(name = "history_count", nullable = false)
+    private int historyCount;
+
+    @Column(name = "last_payment_date")
+    private LocalDateTime lastPaymentDate;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public FinancialArchiveYear(Integer archiveYear) {
+        this.archiveYear = archiveYear;
+    }
+}
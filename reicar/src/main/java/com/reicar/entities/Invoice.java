@@ -6,9 +6,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,6 +21,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Table(name = "invoices")
+// Atualiza só as colunas alteradas: mudar a situação não regrava paid_amount lido antes de um pagamento simultâneo
+@DynamicUpdate
 public class Invoice {
 
     @Id
@@ -49,7 +54,16 @@ public class Invoice {
     @Builder.Default
     private BigDecimal paidAmount = BigDecimal.ZERO;
 
+    // Preenchidas pelo banco; mapeadas para serem copiadas ao arquivar a fatura
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    // Listagens carregam os pagamentos de várias faturas por consulta (IN), evitando N+1
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<Payment> payments = new ArrayList<>();
 
@@ -11,4 +11,10 @@ public class MechanicServiceOrder extends ServiceOrder {
 
     private String technicalDiagnosis;
     private Integer vehicleKm;
+
+    // Peças da mecânica levam 30% de acréscimo
+    @Override
+    public int partsMarkupPercent() {
+        return 130;
+    }
 }
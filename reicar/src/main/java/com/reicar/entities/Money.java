@@ -0,0 +1,202 @@
+package com.reicar.entities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.CharBuffer;
+
+/**
+ * Valor monetário em centavos (long). As colunas continuam DECIMAL(10,2); a conversão
+ * acontece só na borda, e somas, markup e formatação trabalham com aritmética primitiva.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int MAX_FORMATTED_LENGTH = 32;
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal value) {
+        return ofCents(toCents(value));
+    }
+
+    /**
+     * Converte para centavos arredondando HALF_UP na segunda casa; nulo vale zero.
+     */
+    public static long toCents(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        BigDecimal scaled = value.scale() == 2 ? value : value.setScale(2, RoundingMode.HALF_UP);
+        return scaled.scaleByPowerOfTen(2).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(cents);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    /**
+     * Aplica um markup percentual (130 = +30%) com arredondamento HALF_UP exato nos centavos.
+     */
+    public Money withMarkup(int percent) {
+        return ofCents(divideHalfUp(Math.multiplyExact(cents, (long) percent), 100));
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * Formato de moeda pt-BR: "R$ 1.234,56".
+     */
+    public String format() {
+        return format(cents);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    public static String format(BigDecimal value) {
+        return format(toCents(value));
+    }
+
+    public static String format(long cents) {
+        char[] buffer = new char[MAX_FORMATTED_LENGTH];
+        int start = write(buffer, cents, true, true);
+        return new String(buffer, start, MAX_FORMATTED_LENGTH - start);
+    }
+
+    /**
+     * Escreve o valor sem símbolo e sem separador de milhar ("1234,56"), como nas colunas dos CSVs.
+     */
+    public static void appendPlain(Appendable out, BigDecimal value) throws IOException {
+        char[] buffer = new char[MAX_FORMATTED_LENGTH];
+        int start = write(buffer, toCents(value), false, false);
+        int length = MAX_FORMATTED_LENGTH - start;
+
+        if (out instanceof StringBuilder builder) {
+            builder.append(buffer, start, length);
+        } else if (out instanceof Writer writer) {
+            writer.write(buffer, start, length);
+        } else {
+            out.append(CharBuffer.wrap(buffer, start, length));
+        }
+    }
+
+    public static void appendPlain(StringBuilder out, BigDecimal value) {
+        try {
+            appendPlain((Appendable) out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Preenche o buffer de trás para frente e devolve a posição inicial do texto.
+     */
+    private static int write(char[] buffer, long cents, boolean grouping, boolean symbol) {
+        boolean negative = cents < 0;
+        // Long.MIN_VALUE não tem positivo correspondente: trabalha com o resto negativo
+        long remaining = negative ? cents : -cents;
+        int pos = buffer.length;
+
+        buffer[--pos] = (char) ('0' - remaining % 10);
+        remaining /= 10;
+        buffer[--pos] = (char) ('0' - remaining % 10);
+        remaining /= 10;
+        buffer[--pos] = ',';
+
+        int digits = 0;
+        do {
+            if (grouping && digits > 0 && digits % 3 == 0) {
+                buffer[--pos] = '.';
+            }
+            buffer[--pos] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+            digits++;
+        } while (remaining != 0);
+
+        if (symbol) {
+            buffer[--pos] = ' ';
+            buffer[--pos] = '$';
+            buffer[--pos] = 'R';
+        }
+        if (negative) {
+            buffer[--pos] = '-';
+        }
+        return pos;
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * Acumulador mutável para somas de relatório: soma centavos em um long, sem alocar
+     * um BigDecimal por linha. Não é thread-safe.
+     */
+    public static final class Sum {
+
+        private long cents;
+
+        public Sum add(BigDecimal value) {
+            cents = Math.addExact(cents, toCents(value));
+            return this;
+        }
+
+        public Sum add(Money value) {
+            cents = Math.addExact(cents, value.cents);
+            return this;
+        }
+
+        public Sum addCents(long value) {
+            cents = Math.addExact(cents, value);
+            return this;
+        }
+
+        public long cents() {
+            return cents;
+        }
+
+        public Money toMoney() {
+            return ofCents(cents);
+        }
+
+        public BigDecimal toBigDecimal() {
+            return Money.toBigDecimal(cents);
+        }
+    }
+}
@@ -38,4 +38,8 @@ public class Payment {
 
     @Column(name = "recorded_by", length = 100)
     private String recordedBy;
+
+    // Preenchida pelo banco; mapeada para ser copiada ao arquivar o pagamento
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,86 @@
+package com.reicar.entities;
+
+import com.reicar.entities.enums.ReportFormat;
+import com.reicar.entities.enums.ReportJobStatus;
+import com.reicar.entities.enums.ReportType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "report_jobs")
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "report_type", nullable = false, length = 30)
+    private ReportType reportType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ReportFormat format;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int progress = 0;
+
+    @Column(name = "requested_by", nullable = false, length = 100)
+    private String requestedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    // Renovado pela instância que mantém o job na fila ou em execução; vencido, o job é dado como abandonado
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    /**
+     * Nome sugerido para download, no mesmo padrão das exportações síncronas.
+     */
+    public String getDownloadFilename() {
+        String prefix = reportType == ReportType.REVENUE
+            ? "relatorio-receitas"
+            : "extrato-cliente-" + customerId;
+        return String.format("%s-%s-%s.%s", prefix, startDate, endDate, format.getExtension());
+    }
+}
@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 @Table(name = "service_items")
 public class ServiceItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_items_seq")
+    @SequenceGenerator(name = "service_items_seq", sequenceName = "service_items_seq", allocationSize = 500)
     private Long id;
 
     private Integer quantity;
@@ -6,7 +6,6 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,8 +17,10 @@ import java.util.List;
 @DiscriminatorColumn(name = "service_type", discriminatorType = DiscriminatorType.STRING)
 public abstract class ServiceOrder {
 
+    // Ids reservados em blocos (ver V16): permite inserts em lote na importação
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_orders_seq")
+    @SequenceGenerator(name = "service_orders_seq", sequenceName = "service_orders_seq", allocationSize = 500)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -65,19 +66,25 @@ public abstract class ServiceOrder {
     }
 
     /**
-     * Calcula o valor total da OS.
-     * @param markup Fator de acréscimo sobre as peças (ex: 1.30 para 30%)
+     * Markup percentual aplicado sobre as peças (100 = sem acréscimo).
      */
-    public void calculateTotalValue(double markup) {
-        // Calcula o total das peças com markup
-        BigDecimal itemsTotal = items.stream()
-                .map(item -> item.getUnitPrice()
-                        .multiply(BigDecimal.valueOf(item.getQuantity()))
-                        .multiply(BigDecimal.valueOf(markup)))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Soma a mão de obra (serviceValue) ao total das peças
-        this.totalValue = itemsTotal.add(this.serviceValue)
-                .setScale(2, RoundingMode.HALF_UP);
+    public int partsMarkupPercent() {
+        return 100;
+    }
+
+    /**
+     * Calcula o valor total da OS: peças com markup mais a mão de obra.
+     * Soma em centavos e arredonda (HALF_UP) uma única vez sobre o total das peças.
+     */
+    public void calculateTotalValue() {
+        long partsCents = 0;
+        for (ServiceItem item : items) {
+            partsCents = Math.addExact(partsCents, Math.multiplyExact(Money.toCents(item.getUnitPrice()), (long) item.getQuantity()));
+        }
+
+        this.totalValue = Money.ofCents(partsCents)
+                .withMarkup(partsMarkupPercent())
+                .plus(Money.of(this.serviceValue))
+                .toBigDecimal();
     }
 }
\ No newline at end of file
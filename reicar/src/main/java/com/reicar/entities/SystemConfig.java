@@ -21,4 +21,13 @@ public class SystemConfig {
 
     @Column(length = 500)
     private String description;
+
+    @Version
+    private Long version;
+
+    public SystemConfig(String configKey, String configValue, String description) {
+        this.configKey = configKey;
+        this.configValue = configValue;
+        this.description = description;
+    }
 }
@@ -0,0 +1,14 @@
+package com.reicar.entities.enums;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * Formato pela extensão do arquivo: .ndjson/.jsonl, ou CSV para as demais.
+     */
+    public static ImportFormat fromFilename(String filename) {
+        String lower = filename != null ? filename.toLowerCase() : "";
+        return lower.endsWith(".ndjson") || lower.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,22 @@
+package com.reicar.entities.enums;
+
+public enum ReportFormat {
+    PDF("application/pdf", "pdf"),
+    CSV("text/csv; charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,21 @@
+package com.reicar.entities.enums;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED;
+
+    public String getDisplayName() {
+        return switch (this) {
+            case QUEUED -> "Na fila";
+            case RUNNING -> "Gerando";
+            case DONE -> "Concluído";
+            case FAILED -> "Falhou";
+        };
+    }
+
+    public boolean isActive() {
+        return this == QUEUED || this == RUNNING;
+    }
+}
@@ -0,0 +1,13 @@
+package com.reicar.entities.enums;
+
+public enum ReportType {
+    REVENUE,
+    CUSTOMER_STATEMENT;
+
+    public String getDisplayName() {
+        return switch (this) {
+            case REVENUE -> "Relatório de Receitas";
+            case CUSTOMER_STATEMENT -> "Extrato do Cliente";
+        };
+    }
+}
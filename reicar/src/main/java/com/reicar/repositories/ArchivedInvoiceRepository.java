@@ -0,0 +1,89 @@
+package com.reicar.repositories;
+
+import com.reicar.dtos.InvoiceDTO;
+import com.reicar.entities.ArchivedInvoice;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Faturas de anos encerrados. As consultas de relatório repetem as de {@link InvoiceRepository}
+ * e só são chamadas quando o período pedido alcança dados arquivados.
+ */
+@Repository
+public interface ArchivedInvoiceRepository extends JpaRepository<ArchivedInvoice, Long> {
+
+    boolean existsByServiceOrderId(Long serviceOrderId);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = InvoiceRepository.STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.reicar.dtos.InvoiceDTO(i.id, i.invoiceNumber, i.issueDate, i.status, so.id, so.orderNumber, " +
+           "c.id, c.name, c.phone, i.totalValue, i.paidAmount) " +
+           "FROM ArchivedInvoice i JOIN i.customer c JOIN i.serviceOrder so " +
+           "WHERE i.issueDate BETWEEN :startDate AND :endDate ORDER BY i.issueDate, i.id")
+    Stream<InvoiceDTO> streamByIssueDateBetween(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = InvoiceRepository.STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.reicar.dtos.InvoiceDTO(i.id, i.invoiceNumber, i.issueDate, i.status, so.id, so.orderNumber, " +
+           "c.id, c.name, c.phone, i.totalValue, i.paidAmount) " +
+           "FROM ArchivedInvoice i JOIN i.customer c JOIN i.serviceOrder so " +
+           "WHERE c.id = :customerId AND i.issueDate BETWEEN :startDate AND :endDate ORDER BY i.issueDate, i.id")
+    Stream<InvoiceDTO> streamByCustomerIdAndIssueDateBetween(
+        @Param("customerId") Long customerId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT i.status, COUNT(i), COALESCE(SUM(i.totalValue), 0), COALESCE(SUM(i.totalValue - i.paidAmount), 0) " +
+           "FROM ArchivedInvoice i WHERE i.issueDate BETWEEN :startDate AND :endDate GROUP BY i.status")
+    List<Object[]> summarizeByStatusBetweenDates(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT COALESCE(SUM(i.totalValue), 0) FROM ArchivedInvoice i " +
+           "WHERE i.customer.id = :customerId AND i.status <> com.reicar.entities.enums.InvoiceStatus.CANCELLED " +
+           "AND i.issueDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumBilledByCustomerIdAndIssueDateBetween(
+        @Param("customerId") Long customerId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    // Copia as faturas para o arquivo; as linhas originais são removidas na mesma transação
+    @Modifying
+    @Query(value = "INSERT INTO invoices_archive (id, invoice_number, issue_date, status, service_order_id, customer_id, " +
+                   "    total_value, paid_amount, created_at, updated_at, archived_at) " +
+                   "SELECT id, invoice_number, issue_date, status, service_order_id, customer_id, " +
+                   "    total_value, paid_amount, created_at, updated_at, :archivedAt " +
+                   "FROM invoices WHERE id IN (:invoiceIds)",
+           nativeQuery = true)
+    int copyFromInvoices(@Param("invoiceIds") Collection<Long> invoiceIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // SQL nativo: a entidade é imutável para o Hibernate
+    @Modifying
+    @Query(value = "UPDATE invoices_archive SET customer_id = :targetId WHERE customer_id IN (:customerIds)", nativeQuery = true)
+    int reassignCustomer(@Param("targetId") Long targetId, @Param("customerIds") Collection<Long> customerIds);
+}
@@ -0,0 +1,21 @@
+package com.reicar.repositories;
+
+import com.reicar.entities.ArchivedInvoiceStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ArchivedInvoiceStatusHistoryRepository extends JpaRepository<ArchivedInvoiceStatusHistory, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO invoice_status_history_archive (id, invoice_id, previous_status, new_status, changed_at, changed_by) " +
+                   "SELECT id, invoice_id, previous_status, new_status, changed_at, changed_by " +
+                   "FROM invoice_status_history WHERE invoice_id IN (:invoiceIds)",
+           nativeQuery = true)
+    int copyFromHistory(@Param("invoiceIds") Collection<Long> invoiceIds);
+}
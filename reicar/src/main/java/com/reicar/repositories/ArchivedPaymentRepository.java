@@ -0,0 +1,51 @@
+package com.reicar.repositories;
+
+import com.reicar.dtos.PaymentDTO;
+import com.reicar.entities.ArchivedPayment;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface ArchivedPaymentRepository extends JpaRepository<ArchivedPayment, Long> {
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = InvoiceRepository.STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.reicar.dtos.PaymentDTO(p.id, i.id, i.invoiceNumber, c.name, p.amount, p.paymentDate, p.paymentMethod, p.recordedBy) " +
+           "FROM ArchivedPayment p JOIN p.invoice i JOIN i.customer c " +
+           "WHERE c.id = :customerId AND p.paymentDate BETWEEN :start AND :end ORDER BY p.paymentDate, p.id")
+    Stream<PaymentDTO> streamForCustomerStatement(
+        @Param("customerId") Long customerId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM ArchivedPayment p JOIN p.invoice i " +
+           "WHERE i.customer.id = :customerId AND p.paymentDate BETWEEN :start AND :end")
+    BigDecimal sumForCustomerStatement(
+        @Param("customerId") Long customerId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Modifying
+    @Query(value = "INSERT INTO payments_archive (id, invoice_id, amount, payment_date, payment_method, recorded_by, created_at) " +
+                   "SELECT id, invoice_id, amount, payment_date, payment_method, recorded_by, created_at " +
+                   "FROM payments WHERE invoice_id IN (:invoiceIds)",
+           nativeQuery = true)
+    int copyFromPayments(@Param("invoiceIds") Collection<Long> invoiceIds);
+}
@@ -1,13 +1,49 @@
 package com.reicar.repositories;
 
 import com.reicar.entities.Customer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-    // Persquisa por nome
-    List<Customer> findByNameContainingIgnoreCase(String name);
+
+    // Pesquisa por nome no índice FULLTEXT (ngram), mais relevantes primeiro
+    @Query(value = "SELECT * FROM customers WHERE MATCH(name) AGAINST (:terms IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(name) AGAINST (:terms IN BOOLEAN MODE) DESC, name LIMIT :limit",
+           nativeQuery = true)
+    List<Customer> searchByName(@Param("terms") String terms, @Param("limit") int limit);
+
+    // Busca por trecho do nome, para termos menores que o token do índice FULLTEXT
+    List<Customer> findByNameContainingIgnoreCaseOrderByName(String name, Pageable pageable);
+
+    // Ordem estável por id: com limite + 1 o chamador sabe se a lista foi cortada
+    @Query(value = "SELECT id FROM customers WHERE MATCH(name) AGAINST (:terms IN BOOLEAN MODE) ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> searchIdsByName(@Param("terms") String terms, @Param("limit") int limit);
+
+    // Colunas: id, name, phone (a chave é recalculada na aplicação, sem depender da collation)
+    @Query("SELECT c.id, c.name, c.phone FROM Customer c WHERE c.lookupKey IN :lookupKeys")
+    List<Object[]> findIdentityByLookupKeyIn(@Param("lookupKeys") Collection<String> lookupKeys);
+
+    // Cadastro mais antigo com a mesma chave: é o que recebe os novos atendimentos
+    Optional<Customer> findFirstByLookupKeyOrderByIdAsc(String lookupKey);
+
+    // Chaves com mais de um cadastro, em ordem, a partir da última chave processada
+    @Query("SELECT c.lookupKey FROM Customer c WHERE c.lookupKey > :afterKey " +
+           "GROUP BY c.lookupKey HAVING COUNT(c) > 1 ORDER BY c.lookupKey")
+    List<String> findDuplicateLookupKeysAfter(@Param("afterKey") String afterKey, Pageable pageable);
+
+    // Trava os cadastros do grupo para que duas instâncias não mesclem o mesmo cliente ao mesmo tempo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Customer c WHERE c.lookupKey = :lookupKey ORDER BY c.id")
+    List<Customer> findByLookupKeyForUpdate(@Param("lookupKey") String lookupKey);
 }
@@ -0,0 +1,38 @@
+package com.reicar.repositories;
+
+import com.reicar.entities.DailyRevenueRollup;
+import com.reicar.entities.DailyRevenueRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, DailyRevenueRollupId> {
+
+    // Soma o pagamento ao dia/método, criando a linha se ainda não existir
+    @Modifying
+    @Query(value = "INSERT INTO daily_revenue_rollup (revenue_date, payment_method, total_amount, payment_count) " +
+                   "VALUES (:revenueDate, :paymentMethod, :amount, 1) " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), payment_count = payment_count + 1",
+           nativeQuery = true)
+    int accumulate(
+        @Param("revenueDate") LocalDate revenueDate,
+        @Param("paymentMethod") String paymentMethod,
+        @Param("amount") BigDecimal amount
+    );
+
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM DailyRevenueRollup r WHERE r.revenueDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.paymentMethod, COALESCE(SUM(r.totalAmount), 0) FROM DailyRevenueRollup r WHERE r.revenueDate BETWEEN :startDate AND :endDate GROUP BY r.paymentMethod")
+    List<Object[]> sumByPaymentMethodBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.revenueDate, COALESCE(SUM(r.totalAmount), 0) FROM DailyRevenueRollup r WHERE r.revenueDate BETWEEN :startDate AND :endDate GROUP BY r.revenueDate ORDER BY r.revenueDate")
+    List<Object[]> sumDailyBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
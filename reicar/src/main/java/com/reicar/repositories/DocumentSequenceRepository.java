@@ -0,0 +1,37 @@
+package com.reicar.repositories;
+
+import com.reicar.entities.DocumentSequence;
+import com.reicar.entities.DocumentSequenceId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DocumentSequenceRepository extends JpaRepository<DocumentSequence, DocumentSequenceId> {
+
+    /**
+     * Cria o contador do ano sem falhar se outra instância já o criou. Começa depois do maior número
+     * já emitido no ano (ex.: documentos inseridos por script ou importados), e não do 1.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO document_sequences (sequence_name, sequence_year, next_value) " +
+                   "SELECT :name, :year, COALESCE(MAX(issued.number), 0) + 1 FROM ( " +
+                   "    SELECT CAST(SUBSTRING(invoice_number, CHAR_LENGTH(CONCAT('FAT-', :year, '-')) + 1) AS DECIMAL(19)) AS number FROM invoices " +
+                   "    WHERE :name = 'INVOICE' AND invoice_number LIKE CONCAT('FAT-', :year, '-%') " +
+                   "    UNION ALL " +
+                   "    SELECT CAST(SUBSTRING(order_number, CHAR_LENGTH(CONCAT('REICAR-', :year, '-')) + 1) AS DECIMAL(19)) FROM service_orders " +
+                   "    WHERE :name = 'SERVICE_ORDER' AND order_number LIKE CONCAT('REICAR-', :year, '-%') " +
+                   ") issued",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("year") int year);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DocumentSequence s WHERE s.sequenceName = :name AND s.sequenceYear = :year")
+    Optional<DocumentSequence> findForUpdate(@Param("name") String name, @Param("year") int year);
+}
@@ -0,0 +1,16 @@
+package com.reicar.repositories;
+
+import com.reicar.entities.FinancialArchiveYear;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FinancialArchiveYearRepository extends JpaRepository<FinancialArchiveYear, Integer> {
+
+    // Colunas: último ano arquivado e data do último pagamento arquivado (nulos se nada foi arquivado)
+    @Query("SELECT MAX(y.archiveYear), MAX(y.lastPaymentDate) FROM FinancialArchiveYear y")
+    List<Object[]> findArchiveBounds();
+}
@@ -1,29 +1,48 @@
 package com.reicar.repositories;
 
+import com.reicar.dtos.InvoiceDTO;
+import com.reicar.entities.Customer;
 import com.reicar.entities.Invoice;
 import com.reicar.entities.enums.InvoiceStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+public interface InvoiceRepository extends JpaRepository<Invoice, Long>, JpaSpecificationExecutor<Invoice> {
+
+    // Tamanho do lote lido do cursor do MySQL (requer useCursorFetch=true na URL JDBC)
+    String STREAM_FETCH_SIZE = "500";
 
     Optional<Invoice> findByServiceOrderId(Long serviceOrderId);
 
     boolean existsByServiceOrderId(Long serviceOrderId);
 
+    @EntityGraph(attributePaths = {"customer", "serviceOrder"})
     List<Invoice> findByStatus(InvoiceStatus status);
 
+    @EntityGraph(attributePaths = {"customer", "serviceOrder"})
     List<Invoice> findByIssueDateBetween(LocalDate startDate, LocalDate endDate);
 
+    @EntityGraph(attributePaths = {"customer", "serviceOrder"})
     List<Invoice> findByCustomerId(Long customerId);
 
     @Query("SELECT i FROM Invoice i JOIN FETCH i.customer WHERE i.id = :id")
@@ -32,31 +51,209 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT i FROM Invoice i JOIN FETCH i.customer LEFT JOIN FETCH i.serviceOrder")
     List<Invoice> findAllWithDetails();
 
-    @Query("SELECT i FROM Invoice i JOIN FETCH i.customer WHERE i.customer.name LIKE %:query% OR i.invoiceNumber LIKE %:query%")
-    List<Invoice> searchByCustomerNameOrInvoiceNumber(@Param("query") String query);
+    // Ordem estável por id: com limite + 1 o chamador sabe se a lista foi cortada
+    @Query(value = "SELECT id FROM invoices WHERE MATCH(invoice_number) AGAINST (:terms IN BOOLEAN MODE) ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> searchIdsByInvoiceNumber(@Param("terms") String terms, @Param("limit") int limit);
 
-    @Query("SELECT i FROM Invoice i JOIN FETCH i.customer WHERE i.status = :status AND i.issueDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT i FROM Invoice i JOIN FETCH i.customer LEFT JOIN FETCH i.serviceOrder WHERE i.status = :status AND i.issueDate BETWEEN :startDate AND :endDate")
     List<Invoice> findByStatusAndDateRange(
         @Param("status") InvoiceStatus status,
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
 
-    @Query("SELECT COUNT(i) FROM Invoice i WHERE i.status = :status")
-    int countByStatus(@Param("status") InvoiceStatus status);
+    /**
+     * Projeção somente-leitura, lida de forma incremental via cursor. Deve ser consumida
+     * dentro de uma transação e fechada ao final (try-with-resources).
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.reicar.dtos.InvoiceDTO(i.id, i.invoiceNumber, i.issueDate, i.status, so.id, so.orderNumber, " +
+           "c.id, c.name, c.phone, i.totalValue, i.paidAmount) " +
+           "FROM Invoice i JOIN i.customer c JOIN i.serviceOrder so " +
+           "WHERE i.issueDate BETWEEN :startDate AND :endDate ORDER BY i.issueDate, i.id")
+    Stream<InvoiceDTO> streamByIssueDateBetween(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.reicar.dtos.InvoiceDTO(i.id, i.invoiceNumber, i.issueDate, i.status, so.id, so.orderNumber, " +
+           "c.id, c.name, c.phone, i.totalValue, i.paidAmount) " +
+           "FROM Invoice i JOIN i.customer c JOIN i.serviceOrder so " +
+           "WHERE c.id = :customerId AND i.issueDate BETWEEN :startDate AND :endDate ORDER BY i.issueDate, i.id")
+    Stream<InvoiceDTO> streamByCustomerIdAndIssueDateBetween(
+        @Param("customerId") Long customerId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
 
-    @Query("SELECT COALESCE(SUM(i.totalValue), 0) FROM Invoice i WHERE i.status = :status")
-    BigDecimal sumTotalValueByStatus(@Param("status") InvoiceStatus status);
+    @Query("SELECT COALESCE(SUM(i.totalValue), 0) FROM Invoice i " +
+           "WHERE i.customer.id = :customerId AND i.status <> com.reicar.entities.enums.InvoiceStatus.CANCELLED " +
+           "AND i.issueDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumBilledByCustomerIdAndIssueDateBetween(
+        @Param("customerId") Long customerId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
 
-    @Query("SELECT COALESCE(SUM(i.totalValue - i.paidAmount), 0) FROM Invoice i WHERE i.status IN ('UNPAID', 'PARTIAL')")
-    BigDecimal sumOutstandingBalance();
+    /**
+     * Saldo do cliente antes do período: faturas emitidas (exceto canceladas) menos pagamentos recebidos.
+     * Com {@code includeArchive}, soma também as tabelas de arquivo; sem ele, essas partes não são lidas.
+     */
+    @Query(value = "SELECT (SELECT COALESCE(SUM(i.total_value), 0) FROM invoices i " +
+                   "        WHERE i.customer_id = :customerId AND i.status <> 'CANCELLED' AND i.issue_date < :startDate) " +
+                   "     - (SELECT COALESCE(SUM(p.amount), 0) FROM payments p JOIN invoices i ON i.id = p.invoice_id " +
+                   "        WHERE i.customer_id = :customerId AND p.payment_date < :start) " +
+                   "     + (SELECT COALESCE(SUM(i.total_value), 0) FROM invoices_archive i " +
+                   "        WHERE :includeArchive = TRUE AND i.customer_id = :customerId AND i.status <> 'CANCELLED' AND i.issue_date < :startDate) " +
+                   "     - (SELECT COALESCE(SUM(p.amount), 0) FROM payments_archive p JOIN invoices_archive i ON i.id = p.invoice_id " +
+                   "        WHERE :includeArchive = TRUE AND i.customer_id = :customerId AND p.payment_date < :start)",
+           nativeQuery = true)
+    BigDecimal customerBalanceBefore(
+        @Param("customerId") Long customerId,
+        @Param("startDate") LocalDate startDate,
+        @Param("start") LocalDateTime start,
+        @Param("includeArchive") boolean includeArchive
+    );
 
-    @Query("SELECT COALESCE(SUM(i.totalValue - i.paidAmount), 0) FROM Invoice i WHERE i.status = 'PARTIAL'")
-    BigDecimal sumPartialOutstandingBalance();
+    /**
+     * Resumo do que compõe o extrato do cliente até {@code endDate}, usado como versão do PDF do extrato:
+     * muda quando uma fatura é emitida, paga, cancelada ou transferida e quando um pagamento é registrado.
+     * Lê apenas as tabelas principais; o arquivamento tira linhas delas, o que também muda o resumo.
+     * Colunas: faturas, canceladas, total, pago, última alteração, pagamentos, soma dos pagamentos, maior id de pagamento.
+     */
+    @Query(value = "SELECT inv.invoices, inv.cancelled, inv.total, inv.paid, inv.last_update, pay.payments, pay.amount, pay.last_id " +
+                   "FROM (SELECT COUNT(*) AS invoices, COALESCE(SUM(CASE WHEN i.status = 'CANCELLED' THEN 1 ELSE 0 END), 0) AS cancelled, " +
+                   "             COALESCE(SUM(i.total_value), 0) AS total, COALESCE(SUM(i.paid_amount), 0) AS paid, MAX(i.updated_at) AS last_update " +
+                   "      FROM invoices i WHERE i.customer_id = :customerId AND i.issue_date <= :endDate) inv " +
+                   "CROSS JOIN (SELECT COUNT(*) AS payments, COALESCE(SUM(p.amount), 0) AS amount, COALESCE(MAX(p.id), 0) AS last_id " +
+                   "            FROM payments p JOIN invoices i ON i.id = p.invoice_id " +
+                   "            WHERE i.customer_id = :customerId AND p.payment_date <= :end) pay",
+           nativeQuery = true)
+    List<Object[]> customerStatementFingerprint(
+        @Param("customerId") Long customerId,
+        @Param("endDate") LocalDate endDate,
+        @Param("end") LocalDateTime end
+    );
+
+    /**
+     * Movimentação do cliente no período (faturas como débito, pagamentos como crédito) em ordem
+     * cronológica, com o saldo acumulado calculado por função de janela a partir do saldo anterior.
+     * Colunas: entry_date, entry_type, invoice_id, invoice_number, detail, debit, credit, running_balance.
+     * Com {@code includeArchive}, a movimentação das tabelas de arquivo entra na mesma ordenação.
+     * CONCAT dá o mesmo tipo texto à situação e ao método de pagamento em todas as partes do UNION.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT l.entry_date, l.entry_type, l.invoice_id, l.invoice_number, l.detail, l.debit, l.credit, " +
+                   "       :openingBalance + SUM(l.debit - l.credit) OVER (ORDER BY l.entry_date, l.entry_order, l.entry_id " +
+                   "           ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW) AS running_balance " +
+                   "FROM ( " +
+                   "    SELECT CAST(i.issue_date AS DATETIME) AS entry_date, 0 AS entry_order, i.id AS entry_id, " +
+                   "           'INVOICE' AS entry_type, i.id AS invoice_id, i.invoice_number, CONCAT(i.status, '') AS detail, " +
+                   "           CASE WHEN i.status = 'CANCELLED' THEN 0 ELSE i.total_value END AS debit, 0 AS credit " +
+                   "    FROM invoices i " +
+                   "    WHERE i.customer_id = :customerId AND i.issue_date BETWEEN :startDate AND :endDate " +
+                   "    UNION ALL " +
+                   "    SELECT p.payment_date, 1, p.id, 'PAYMENT', i.id, i.invoice_number, CONCAT(p.payment_method, ''), 0, p.amount " +
+                   "    FROM payments p JOIN invoices i ON i.id = p.invoice_id " +
+                   "    WHERE i.customer_id = :customerId AND p.payment_date BETWEEN :start AND :end " +
+                   "    UNION ALL " +
+                   "    SELECT CAST(i.issue_date AS DATETIME), 0, i.id, 'INVOICE', i.id, i.invoice_number, CONCAT(i.status, ''), " +
+                   "           CASE WHEN i.status = 'CANCELLED' THEN 0 ELSE i.total_value END, 0 " +
+                   "    FROM invoices_archive i " +
+                   "    WHERE :includeArchive = TRUE AND i.customer_id = :customerId AND i.issue_date BETWEEN :startDate AND :endDate " +
+                   "    UNION ALL " +
+                   "    SELECT p.payment_date, 1, p.id, 'PAYMENT', i.id, i.invoice_number, CONCAT(p.payment_method, ''), 0, p.amount " +
+                   "    FROM payments_archive p JOIN invoices_archive i ON i.id = p.invoice_id " +
+                   "    WHERE :includeArchive = TRUE AND i.customer_id = :customerId AND p.payment_date BETWEEN :start AND :end " +
+                   ") l " +
+                   "ORDER BY l.entry_date, l.entry_order, l.entry_id",
+           nativeQuery = true)
+    Stream<Object[]> streamCustomerLedger(
+        @Param("customerId") Long customerId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end,
+        @Param("openingBalance") BigDecimal openingBalance,
+        @Param("includeArchive") boolean includeArchive
+    );
+
+    @Query("SELECT i.status, COUNT(i), COALESCE(SUM(i.totalValue), 0), COALESCE(SUM(i.totalValue - i.paidAmount), 0) " +
+           "FROM Invoice i WHERE i.issueDate BETWEEN :startDate AND :endDate GROUP BY i.status")
+    List<Object[]> summarizeByStatusBetweenDates(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Quantidade e valores por situação de faturas e OS em uma consulta, para os contadores de KPI.
+     * Colunas: kind ('INVOICE' ou 'SERVICE_ORDER'), status, count, total_value, e paid_amount (faturas)
+     * ou service_value (OS). CONCAT dá o mesmo tipo texto à situação nas duas partes do UNION.
+     */
+    @Query(value = "SELECT 'INVOICE' AS kind, CONCAT(status, '') AS status, COUNT(*), COALESCE(SUM(total_value), 0), COALESCE(SUM(paid_amount), 0) " +
+                   "FROM invoices GROUP BY status " +
+                   "UNION ALL " +
+                   "SELECT 'SERVICE_ORDER', CONCAT(status, ''), COUNT(*), COALESCE(SUM(total_value), 0), COALESCE(SUM(service_value), 0) " +
+                   "FROM service_orders GROUP BY status",
+           nativeQuery = true)
+    List<Object[]> summarizeStatusTotals();
 
     @Query("SELECT COALESCE(SUM(i.totalValue), 0) FROM Invoice i WHERE i.customer.id = :customerId AND i.status IN ('UNPAID', 'PARTIAL')")
     BigDecimal sumOutstandingByCustomerId(@Param("customerId") Long customerId);
 
-    @Query("SELECT COALESCE(SUM(i.totalValue), 0) FROM Invoice i WHERE i.customer.id = :customerId")
-    BigDecimal sumTotalInvoicedByCustomerId(@Param("customerId") Long customerId);
+    /**
+     * Soma o pagamento ao valor pago e recalcula a situação no mesmo comando, apenas se a fatura está
+     * em aberto e o valor cabe no saldo. Retorna 0 quando a condição não é atendida.
+     * A situação vem antes no SET: o MySQL avalia as atribuições em ordem, com o valor já alterado.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Invoice i SET " +
+           "i.status = CASE WHEN i.paidAmount + :amount >= i.totalValue THEN com.reicar.entities.enums.InvoiceStatus.PAID " +
+           "                ELSE com.reicar.entities.enums.InvoiceStatus.PARTIAL END, " +
+           "i.paidAmount = i.paidAmount + :amount " +
+           "WHERE i.id = :id AND i.status IN (com.reicar.entities.enums.InvoiceStatus.UNPAID, com.reicar.entities.enums.InvoiceStatus.PARTIAL) " +
+           "AND i.paidAmount + :amount <= i.totalValue")
+    int applyPayment(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Cancela a fatura no mesmo comando que confere que ela está em aberto e sem valor pago.
+     * Retorna 0 quando a condição não é atendida (ex.: um pagamento foi confirmado antes).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Invoice i SET i.status = com.reicar.entities.enums.InvoiceStatus.CANCELLED " +
+           "WHERE i.id = :id AND i.status = com.reicar.entities.enums.InvoiceStatus.UNPAID AND i.paidAmount = 0")
+    int cancelIfUnpaid(@Param("id") Long id);
+
+    @Query("SELECT MIN(i.issueDate) FROM Invoice i")
+    LocalDate findEarliestIssueDate();
+
+    @Query("SELECT COUNT(i) FROM Invoice i WHERE i.issueDate BETWEEN :startDate AND :endDate " +
+           "AND i.status IN (com.reicar.entities.enums.InvoiceStatus.UNPAID, com.reicar.entities.enums.InvoiceStatus.PARTIAL)")
+    long countOpenBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT i.id FROM Invoice i WHERE i.issueDate BETWEEN :startDate AND :endDate ORDER BY i.id")
+    List<Long> findIdsByIssueDateBetween(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("DELETE FROM Invoice i WHERE i.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Invoice i SET i.customer = :target WHERE i.customer.id IN :customerIds")
+    int reassignCustomer(@Param("target") Customer target, @Param("customerIds") Collection<Long> customerIds);
 }
@@ -0,0 +1,77 @@
+package com.reicar.repositories;
+
+import com.reicar.dtos.SearchMatchesDTO;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.enums.InvoiceStatus;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtros dinâmicos da listagem de faturas. Todas as combinações de filtro
+ * viram um único SELECT com os predicados presentes, em vez de uma consulta por combinação.
+ */
+public final class InvoiceSpecifications {
+
+    private InvoiceSpecifications() {
+    }
+
+    /**
+     * @param status status da fatura (null ignora)
+     * @param startDate data de emissão inicial, inclusiva (null ignora)
+     * @param endDate data de emissão final, inclusiva (null ignora)
+     * @param customerId cliente da fatura (null ignora)
+     * @param searchMatches clientes/faturas encontrados pela busca textual (null ignora)
+     */
+    public static Specification<Invoice> withFilters(InvoiceStatus status, LocalDate startDate, LocalDate endDate,
+                                                     Long customerId, SearchMatchesDTO searchMatches) {
+        return (root, query, cb) -> {
+            // Em consultas de contagem não há entidade para hidratar
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("customer");
+                root.fetch("serviceOrder", JoinType.LEFT);
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("issueDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("issueDate"), endDate));
+            }
+            if (customerId != null) {
+                predicates.add(cb.equal(root.get("customer").get("id"), customerId));
+            }
+            if (searchMatches != null && searchMatches.isByText()) {
+                String pattern = "%" + escapeLike(searchMatches.text().toLowerCase(Locale.ROOT)) + "%";
+                predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("customer").get("name")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("invoiceNumber")), pattern, '\\')));
+            } else if (searchMatches != null) {
+                List<Predicate> matches = new ArrayList<>();
+                if (!searchMatches.customerIds().isEmpty()) {
+                    matches.add(root.get("customer").get("id").in(searchMatches.customerIds()));
+                }
+                if (!searchMatches.invoiceIds().isEmpty()) {
+                    matches.add(root.get("id").in(searchMatches.invoiceIds()));
+                }
+                predicates.add(matches.isEmpty() ? cb.disjunction() : cb.or(matches.toArray(Predicate[]::new)));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -2,12 +2,20 @@ package com.reicar.repositories;
 
 import com.reicar.entities.InvoiceStatusHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface InvoiceStatusHistoryRepository extends JpaRepository<InvoiceStatusHistory, Long> {
 
     List<InvoiceStatusHistory> findByInvoiceIdOrderByChangedAtDesc(Long invoiceId);
+
+    @Modifying
+    @Query("DELETE FROM InvoiceStatusHistory h WHERE h.invoice.id IN :invoiceIds")
+    int deleteByInvoiceIds(@Param("invoiceIds") Collection<Long> invoiceIds);
 }
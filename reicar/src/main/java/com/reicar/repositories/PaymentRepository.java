@@ -1,15 +1,24 @@
 package com.reicar.repositories;
 
+import com.reicar.dtos.PaymentDTO;
 import com.reicar.entities.Payment;
 import com.reicar.entities.enums.PaymentMethod;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -35,6 +44,35 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p.paymentMethod, COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.paymentDate BETWEEN :start AND :end GROUP BY p.paymentMethod")
     List<Object[]> sumByPaymentMethodBetweenDates(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT CAST(p.paymentDate AS LocalDate), COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.paymentDate BETWEEN :start AND :end GROUP BY CAST(p.paymentDate AS LocalDate) ORDER BY CAST(p.paymentDate AS LocalDate)")
-    List<Object[]> sumDailyRevenueBetweenDates(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    /**
+     * Pagamentos recebidos do cliente no período (de qualquer fatura), lidos de forma incremental.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = InvoiceRepository.STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.reicar.dtos.PaymentDTO(p.id, i.id, i.invoiceNumber, c.name, p.amount, p.paymentDate, p.paymentMethod, p.recordedBy) " +
+           "FROM Payment p JOIN p.invoice i JOIN i.customer c " +
+           "WHERE c.id = :customerId AND p.paymentDate BETWEEN :start AND :end ORDER BY p.paymentDate, p.id")
+    Stream<PaymentDTO> streamForCustomerStatement(
+        @Param("customerId") Long customerId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p JOIN p.invoice i " +
+           "WHERE i.customer.id = :customerId AND p.paymentDate BETWEEN :start AND :end")
+    BigDecimal sumForCustomerStatement(
+        @Param("customerId") Long customerId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT MAX(p.paymentDate) FROM Payment p WHERE p.invoice.id IN :invoiceIds")
+    LocalDateTime findLastPaymentDateByInvoiceIds(@Param("invoiceIds") Collection<Long> invoiceIds);
+
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.invoice.id IN :invoiceIds")
+    int deleteByInvoiceIds(@Param("invoiceIds") Collection<Long> invoiceIds);
 }
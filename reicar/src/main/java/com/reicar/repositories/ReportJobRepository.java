@@ -0,0 +1,50 @@
+package com.reicar.repositories;
+
+import com.reicar.entities.ReportJob;
+import com.reicar.entities.enums.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    List<ReportJob> findTop50ByRequestedByOrderByCreatedAtDesc(String requestedBy);
+
+    List<ReportJob> findByFinishedAtBefore(LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.heartbeatAt = :now WHERE j.id IN :ids AND j.status IN :statuses")
+    int renewHeartbeat(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<ReportJobStatus> statuses,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Falha, numa única instrução, os jobs pendentes cuja instância deixou de renovar o heartbeat.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.reicar.entities.enums.ReportJobStatus.FAILED, j.finishedAt = :now, " +
+           "j.errorMessage = :message WHERE j.status IN :statuses AND j.heartbeatAt < :cutoff")
+    int failAbandoned(@Param("statuses") Collection<ReportJobStatus> statuses, @Param("cutoff") LocalDateTime cutoff,
+                      @Param("now") LocalDateTime now, @Param("message") String message);
+
+    // Atualização pontual do progresso, sem carregar a entidade; ignorada se o job já terminou.
+    // Transação própria: é chamada durante a geração, que roda em transação somente leitura (réplica)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.progress = :progress WHERE j.id = :id AND j.status = com.reicar.entities.enums.ReportJobStatus.RUNNING")
+    int updateProgress(@Param("id") Long id, @Param("progress") int progress);
+
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.customerId = :targetId WHERE j.customerId IN :customerIds")
+    int reassignCustomer(@Param("targetId") Long targetId, @Param("customerIds") Collection<Long> customerIds);
+}
@@ -3,12 +3,15 @@ package com.reicar.repositories;
 import com.reicar.entities.Customer;
 import com.reicar.entities.ServiceOrder;
 import com.reicar.entities.enums.ServiceStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,20 @@ public interface ServiceOrderRepository extends JpaRepository<ServiceOrder, Long
     @Query("SELECT so FROM ServiceOrder so JOIN FETCH so.customer")
     List<ServiceOrder> findAllWithCustomer();
 
+    // Primeira página do dashboard (keyset: entryDate DESC, id DESC)
+    @Query("SELECT so FROM ServiceOrder so LEFT JOIN FETCH so.customer ORDER BY so.entryDate DESC, so.id DESC")
+    List<ServiceOrder> findDashboardFirstPage(Pageable pageable);
+
+    // Páginas seguintes: busca a partir da última OS exibida, sem OFFSET
+    @Query("SELECT so FROM ServiceOrder so LEFT JOIN FETCH so.customer " +
+           "WHERE so.entryDate < :entryDate OR (so.entryDate = :entryDate AND so.id < :id) " +
+           "ORDER BY so.entryDate DESC, so.id DESC")
+    List<ServiceOrder> findDashboardPageAfter(
+        @Param("entryDate") LocalDate entryDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
     @Query("SELECT s FROM ServiceOrder s LEFT JOIN FETCH s.items LEFT JOIN FETCH s.customer WHERE s.id = :id")
     Optional<ServiceOrder> findByIdWithDetails(@Param("id") Long id);
 
@@ -35,4 +52,11 @@ public interface ServiceOrderRepository extends JpaRepository<ServiceOrder, Long
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
+
+    @Query("SELECT so.orderNumber FROM ServiceOrder so WHERE so.orderNumber IN :orderNumbers")
+    List<String> findExistingOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    @Modifying
+    @Query("UPDATE ServiceOrder so SET so.customer = :target WHERE so.customer.id IN :customerIds")
+    int reassignCustomer(@Param("target") Customer target, @Param("customerIds") Collection<Long> customerIds);
 }
@@ -2,16 +2,15 @@ package com.reicar.repositories;
 
 import com.reicar.entities.SystemConfig;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface SystemConfigRepository extends JpaRepository<SystemConfig, String> {
 
-    default int getWarrantyDays() {
-        return findById("warranty_days")
-            .map(config -> Integer.parseInt(config.getConfigValue()))
-            .orElse(90);
-    }
+    // Impressão digital barata da tabela: muda a cada inclusão, exclusão ou atualização (@Version)
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.version), 0) FROM SystemConfig c")
+    List<Object[]> fingerprint();
 }
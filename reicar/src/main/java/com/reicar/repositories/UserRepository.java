@@ -1,11 +1,15 @@
 package com.reicar.repositories;
 
+import com.reicar.entities.Customer;
 import com.reicar.entities.User;
 import com.reicar.entities.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +24,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.customer WHERE u.username = :username")
     Optional<User> findByUsernameWithCustomer(String username);
+
+    @Query("SELECT u.username FROM User u WHERE u.customer.id IN :customerIds")
+    List<String> findUsernamesByCustomerIds(@Param("customerIds") Collection<Long> customerIds);
+
+    @Modifying
+    @Query("UPDATE User u SET u.customer = :target WHERE u.customer.id IN :customerIds")
+    int reassignCustomer(@Param("target") Customer target, @Param("customerIds") Collection<Long> customerIds);
 }
@@ -1,21 +1,87 @@
 package com.reicar.services;
 
+import com.reicar.config.AfterCommit;
+import com.reicar.entities.User;
 import com.reicar.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Carrega usuários para o login, com cache em memória por nome de usuário.
+ * O cache expira após {@code reicar.security.user-cache-ttl} e é invalidado após o commit
+ * de alterações e exclusões feitas pelo {@link UserService}.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final int MAX_CACHED_USERS = 10_000;
 
     private final UserRepository userRepository;
+    private final ConcurrentMap<String, CachedUser> cache = new ConcurrentHashMap<>();
+
+    @Value("${reicar.security.user-cache-ttl:5m}")
+    private Duration cacheTtl;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsernameWithCustomer(username)
+        CachedUser cached = cache.get(username);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.loadedAt() < cacheTtl.toNanos()) {
+            return cached.user();
+        }
+
+        User user = userRepository.findByUsernameWithCustomer(username)
             .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        put(user, now);
+        return user;
+    }
+
+    /**
+     * Chamado pelo Spring Security após um login válido quando o hash gravado usa
+     * um custo BCrypt diferente do configurado: grava o novo hash e atualiza o cache.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsernameWithCustomer(userDetails.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        log.info("Hash de senha atualizado para o custo configurado: {}", user.getUsername());
+
+        evictAfterCommit(user.getUsername());
+        return user;
+    }
+
+    /**
+     * Remove o usuário do cache; dentro de uma transação, somente após o commit,
+     * para que um login concorrente não recarregue o valor antigo.
+     */
+    public void evictAfterCommit(String username) {
+        AfterCommit.runNowAndAfterCommit(() -> cache.remove(username));
+    }
+
+    private void put(User user, long loadedAt) {
+        // Limite de segurança: a base de usuários é pequena, então basta esvaziar ao estourar
+        if (cache.size() >= MAX_CACHED_USERS) {
+            cache.clear();
+        }
+        cache.put(user.getUsername(), new CachedUser(user, loadedAt));
+    }
+
+    private record CachedUser(User user, long loadedAt) {
     }
 }
@@ -0,0 +1,50 @@
+package com.reicar.services;
+
+import com.reicar.repositories.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Varre periodicamente os clientes com a mesma chave de deduplicação e os mescla em lotes
+ * de {@code reicar.customers.merge.batch-size} grupos, cada lote em sua transação.
+ * A varredura avança pela chave, então um grupo que falhar não trava os seguintes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerMergeJob {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMergeService customerMergeService;
+
+    @Value("${reicar.customers.merge.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(cron = "${reicar.customers.merge.cron:0 0 2 * * *}")
+    public void mergeDuplicates() {
+        String afterKey = "";
+        int groups = 0;
+        int removed = 0;
+
+        List<String> lookupKeys;
+        while (!(lookupKeys = customerRepository.findDuplicateLookupKeysAfter(afterKey, PageRequest.ofSize(batchSize))).isEmpty()) {
+            try {
+                removed += customerMergeService.mergeBatch(lookupKeys);
+                groups += lookupKeys.size();
+            } catch (RuntimeException e) {
+                log.error("Falha ao mesclar clientes duplicados a partir da chave '{}'", lookupKeys.get(0), e);
+            }
+            afterKey = lookupKeys.get(lookupKeys.size() - 1);
+        }
+
+        if (removed > 0) {
+            log.info("Clientes duplicados mesclados: {} grupos, {} cadastros removidos", groups, removed);
+        }
+    }
+}
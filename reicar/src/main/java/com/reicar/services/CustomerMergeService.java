@@ -0,0 +1,96 @@
+package com.reicar.services;
+
+import com.reicar.config.Measured;
+import com.reicar.entities.Customer;
+import com.reicar.repositories.ArchivedInvoiceRepository;
+import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.InvoiceRepository;
+import com.reicar.repositories.ReportJobRepository;
+import com.reicar.repositories.ServiceOrderRepository;
+import com.reicar.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Consolida cadastros duplicados de clientes (mesma {@link Customer#getLookupKey() chave}):
+ * o cadastro mais antigo permanece, recebe as OS, faturas, usuários e relatórios dos demais,
+ * e os duplicados são removidos. Cada lote roda em uma transação própria.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerMergeService {
+
+    private final CustomerRepository customerRepository;
+    private final ServiceOrderRepository serviceOrderRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ArchivedInvoiceRepository archivedInvoiceRepository;
+    private final UserRepository userRepository;
+    private final ReportJobRepository reportJobRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final ReportCache reportCache;
+    private final GeneratedDocumentStore documentStore;
+
+    /**
+     * Mescla os grupos das chaves informadas e devolve quantos cadastros duplicados foram removidos.
+     */
+    @Transactional
+    @Measured
+    public int mergeBatch(List<String> lookupKeys) {
+        int removed = 0;
+        for (String lookupKey : lookupKeys) {
+            List<Customer> group = customerRepository.findByLookupKeyForUpdate(lookupKey);
+            if (group.size() > 1) {
+                removed += merge(group.get(0), group.subList(1, group.size()));
+            }
+        }
+        return removed;
+    }
+
+    private int merge(Customer target, List<Customer> duplicates) {
+        List<Long> duplicateIds = duplicates.stream().map(Customer::getId).toList();
+
+        fillMissing(target, duplicates, Customer::getCity, Customer::setCity);
+        fillMissing(target, duplicates, Customer::getState, Customer::setState);
+
+        // Usuários em cache ainda apontariam para o cadastro removido
+        userRepository.findUsernamesByCustomerIds(duplicateIds).forEach(userDetailsService::evictAfterCommit);
+
+        int orders = serviceOrderRepository.reassignCustomer(target, duplicateIds);
+        int invoices = invoiceRepository.reassignCustomer(target, duplicateIds);
+        archivedInvoiceRepository.reassignCustomer(target.getId(), duplicateIds);
+        userRepository.reassignCustomer(target, duplicateIds);
+        reportJobRepository.reassignCustomer(target.getId(), duplicateIds);
+        customerRepository.deleteAllByIdInBatch(duplicateIds);
+
+        List<Long> affectedIds = new ArrayList<>(duplicateIds);
+        affectedIds.add(target.getId());
+        reportCache.invalidateCustomersAfterCommit(affectedIds);
+        documentStore.invalidateCustomersAfterCommit(affectedIds);
+
+        log.debug("Cliente {} mesclado com {}: {} OS e {} faturas transferidas", target.getId(), duplicateIds, orders, invoices);
+        return duplicateIds.size();
+    }
+
+    // Completa dados em branco do cadastro mantido com o duplicado mais recente que os tenha
+    private static void fillMissing(Customer target, List<Customer> duplicates,
+                                    Function<Customer, String> getter, BiConsumer<Customer, String> setter) {
+        if (getter.apply(target) != null && !getter.apply(target).isBlank()) {
+            return;
+        }
+        for (int i = duplicates.size() - 1; i >= 0; i--) {
+            String value = getter.apply(duplicates.get(i));
+            if (value != null && !value.isBlank()) {
+                setter.accept(target, value);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.reicar.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Numeração de faturas e ordens de serviço (hi/lo).
+ * Cada instância reserva blocos de números no banco e os distribui a partir da memória,
+ * então a maioria das chamadas não acessa o banco. Números de blocos não usados
+ * (ex: reinício da aplicação) são descartados: a numeração admite lacunas.
+ * <p>
+ * Chame antes de abrir a transação que grava o documento. A reserva de um bloco usa uma conexão
+ * própria, e as demais chamadas aguardam por ela: se cada uma segurasse a conexão da sua transação,
+ * bastariam {@code maximum-pool-size} criações simultâneas na virada do bloco para esgotar o pool
+ * e travar todas até o {@code connection-timeout}.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentNumberService {
+
+    static final String INVOICE_SEQUENCE = "INVOICE";
+    static final String SERVICE_ORDER_SEQUENCE = "SERVICE_ORDER";
+
+    private final DocumentSequenceAllocator allocator;
+    private final ConcurrentMap<String, Block> blocks = new ConcurrentHashMap<>();
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    @Value("${reicar.sequences.block-size:20}")
+    private int blockSize;
+
+    public String nextInvoiceNumber() {
+        int year = LocalDate.now().getYear();
+        return String.format("FAT-%d-%04d", year, next(INVOICE_SEQUENCE, year));
+    }
+
+    public String nextServiceOrderNumber() {
+        int year = LocalDate.now().getYear();
+        return String.format("REICAR-%d-%04d", year, next(SERVICE_ORDER_SEQUENCE, year));
+    }
+
+    // Para a importação: os números de um lote inteiro, reservados de uma vez antes da transação do lote
+    public List<String> nextServiceOrderNumbers(int count) {
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(nextServiceOrderNumber());
+        }
+        return numbers;
+    }
+
+    long next(String sequenceName, int year) {
+        String key = sequenceName + ":" + year;
+        while (true) {
+            Block block = blocks.get(key);
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.limit) {
+                    return value;
+                }
+            }
+            refill(key, block, sequenceName, year);
+        }
+    }
+
+    /**
+     * Só uma thread reserva o novo bloco; as demais reaproveitam o resultado.
+     * ReentrantLock em vez de synchronized: a reserva faz I/O JDBC, e um monitor prenderia
+     * a thread virtual à thread carregadora durante toda a consulta.
+     */
+    private void refill(String key, Block exhausted, String sequenceName, int year) {
+        refillLock.lock();
+        try {
+            if (blocks.get(key) != exhausted) {
+                return;
+            }
+            long start = allocator.reserveBlock(sequenceName, year, blockSize);
+            blocks.put(key, new Block(start, start + blockSize));
+            // Descarta blocos de anos anteriores
+            blocks.keySet().removeIf(k -> k.startsWith(sequenceName + ":") && !k.equals(key));
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
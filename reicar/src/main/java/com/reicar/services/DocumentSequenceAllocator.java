@@ -0,0 +1,39 @@
+package com.reicar.services;
+
+import com.reicar.entities.DocumentSequence;
+import com.reicar.entities.DocumentSequenceId;
+import com.reicar.repositories.DocumentSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class DocumentSequenceAllocator {
+
+    private final DocumentSequenceRepository repository;
+
+    /**
+     * Reserva um bloco de números no banco e devolve o primeiro número do bloco.
+     * Roda em transação própria para que o lock da linha dure só a reserva,
+     * e não a transação inteira de quem está salvando o documento.
+     * @param blockSize quantidade de números reservados
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveBlock(String sequenceName, int year, int blockSize) {
+        // A criação lê os números já emitidos no ano, então só é tentada quando o contador ainda não existe.
+        // A verificação é uma leitura sem lock: um SELECT FOR UPDATE em linha inexistente travaria o intervalo
+        // e duas instâncias criando o mesmo ano entrariam em deadlock
+        if (!repository.existsById(new DocumentSequenceId(sequenceName, year))) {
+            repository.insertIfAbsent(sequenceName, year);
+        }
+
+        DocumentSequence sequence = repository.findForUpdate(sequenceName, year)
+            .orElseThrow(() -> new IllegalStateException("Sequência não encontrada: " + sequenceName + "/" + year));
+
+        long blockStart = sequence.getNextValue();
+        sequence.setNextValue(blockStart + blockSize);
+        return blockStart;
+    }
+}
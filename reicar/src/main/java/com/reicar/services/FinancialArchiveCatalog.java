@@ -0,0 +1,56 @@
+package com.reicar.services;
+
+import com.reicar.repositories.FinancialArchiveYearRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Até que data existem dados arquivados, mantido em memória: os relatórios decidem sem consulta
+ * se precisam ler as tabelas de arquivo. É o fim do último ano arquivado ou, se posterior, o último
+ * pagamento arquivado. Recarregado após cada lote arquivado localmente e a cada
+ * {@code reicar.archive.refresh-interval} (arquivamento feito por outra instância).
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialArchiveCatalog {
+
+    private final FinancialArchiveYearRepository financialArchiveYearRepository;
+
+    // null enquanto nada foi arquivado
+    private volatile LocalDate archivedUntil;
+
+    public boolean isEmpty() {
+        return archivedUntil == null;
+    }
+
+    /**
+     * Indica se um período que começa em {@code startDate} alcança dados arquivados.
+     */
+    public boolean reaches(LocalDate startDate) {
+        LocalDate until = archivedUntil;
+        return until != null && !startDate.isAfter(until);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reicar.archive.refresh-interval:30s}", initialDelayString = "${reicar.archive.refresh-interval:30s}")
+    public void refresh() {
+        Object[] bounds = financialArchiveYearRepository.findArchiveBounds().get(0);
+        Integer lastYear = (Integer) bounds[0];
+        LocalDateTime lastPaymentDate = (LocalDateTime) bounds[1];
+
+        if (lastYear == null) {
+            archivedUntil = null;
+            return;
+        }
+        LocalDate endOfYear = LocalDate.of(lastYear, 12, 31);
+        archivedUntil = lastPaymentDate != null && lastPaymentDate.toLocalDate().isAfter(endOfYear)
+            ? lastPaymentDate.toLocalDate()
+            : endOfYear;
+    }
+}
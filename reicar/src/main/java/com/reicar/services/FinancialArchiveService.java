@@ -0,0 +1,94 @@
+package com.reicar.services;
+
+import com.reicar.config.Measured;
+import com.reicar.repositories.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arquiva anos encerrados: do ano mais antigo em diante, enquanto o ano for anterior aos
+ * {@code reicar.archive.keep-years} mais recentes e todas as suas faturas estiverem pagas ou canceladas.
+ * Um ano com fatura em aberto interrompe a varredura, então os anos arquivados são sempre contíguos.
+ * Cada lote de {@code reicar.archive.batch-size} faturas é movido em sua transação
+ * ({@link FinancialArchiveWriter}); ao terminar um ano, suas partições vazias são removidas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FinancialArchiveService {
+
+    private final InvoiceRepository invoiceRepository;
+    private final FinancialArchiveWriter financialArchiveWriter;
+    private final FinancialArchiveCatalog financialArchiveCatalog;
+    private final PartitionMaintenance partitionMaintenance;
+    private final KpiCounters kpiCounters;
+
+    @Value("${reicar.archive.keep-years:2}")
+    private int keepYears;
+
+    @Value("${reicar.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${reicar.archive.cron:0 30 3 * * *}")
+    public void runMaintenance() {
+        partitionMaintenance.createUpcomingPartitions();
+        archiveClosedYears();
+    }
+
+    /**
+     * Arquiva os anos encerrados e devolve os anos arquivados nesta execução.
+     */
+    @Measured
+    public List<Integer> archiveClosedYears() {
+        int lastArchivableYear = LocalDate.now().getYear() - keepYears;
+        List<Integer> archivedYears = new ArrayList<>();
+
+        LocalDate earliest;
+        while ((earliest = invoiceRepository.findEarliestIssueDate()) != null && earliest.getYear() <= lastArchivableYear) {
+            int year = earliest.getYear();
+            LocalDate startDate = LocalDate.of(year, 1, 1);
+            LocalDate endDate = LocalDate.of(year, 12, 31);
+
+            long openInvoices = invoiceRepository.countOpenBetweenDates(startDate, endDate);
+            if (openInvoices > 0) {
+                log.info("Ano {} não arquivado: {} faturas em aberto", year, openInvoices);
+                break;
+            }
+            archiveYear(year, startDate, endDate);
+            archivedYears.add(year);
+        }
+
+        if (!archivedYears.isEmpty()) {
+            // Faturas pagas e canceladas saíram da tabela principal
+            kpiCounters.reconcile();
+        }
+        return archivedYears;
+    }
+
+    private void archiveYear(int year, LocalDate startDate, LocalDate endDate) {
+        int invoices = 0;
+        int payments = 0;
+        int history = 0;
+
+        List<Long> invoiceIds;
+        while (!(invoiceIds = invoiceRepository.findIdsByIssueDateBetween(startDate, endDate, PageRequest.ofSize(batchSize))).isEmpty()) {
+            FinancialArchiveWriter.ArchivedBatch batch = financialArchiveWriter.archive(year, invoiceIds);
+            // Relatórios desta instância passam a ler o arquivo logo após o commit do lote
+            financialArchiveCatalog.refresh();
+            invoices += batch.invoices();
+            payments += batch.payments();
+            history += batch.history();
+        }
+
+        partitionMaintenance.dropEmptyPartitionsBefore(LocalDate.of(year + 1, 1, 1));
+        log.info("Ano {} arquivado: {} faturas, {} pagamentos, {} alterações de situação", year, invoices, payments, history);
+    }
+}
@@ -0,0 +1,64 @@
+package com.reicar.services;
+
+import com.reicar.entities.FinancialArchiveYear;
+import com.reicar.repositories.ArchivedInvoiceRepository;
+import com.reicar.repositories.ArchivedInvoiceStatusHistoryRepository;
+import com.reicar.repositories.ArchivedPaymentRepository;
+import com.reicar.repositories.FinancialArchiveYearRepository;
+import com.reicar.repositories.InvoiceRepository;
+import com.reicar.repositories.InvoiceStatusHistoryRepository;
+import com.reicar.repositories.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Move um lote de faturas, com seus pagamentos e histórico, para as tabelas de arquivo.
+ * Cópia, remoção e o resumo do ano ficam na mesma transação: o lote aparece inteiro em um lugar só.
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialArchiveWriter {
+
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final InvoiceStatusHistoryRepository invoiceStatusHistoryRepository;
+    private final ArchivedInvoiceRepository archivedInvoiceRepository;
+    private final ArchivedPaymentRepository archivedPaymentRepository;
+    private final ArchivedInvoiceStatusHistoryRepository archivedInvoiceStatusHistoryRepository;
+    private final FinancialArchiveYearRepository financialArchiveYearRepository;
+
+    public record ArchivedBatch(int invoices, int payments, int history) {
+    }
+
+    @Transactional
+    public ArchivedBatch archive(int year, List<Long> invoiceIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastPaymentDate = paymentRepository.findLastPaymentDateByInvoiceIds(invoiceIds);
+
+        // Filhos copiados depois das faturas e removidos antes delas
+        int invoices = archivedInvoiceRepository.copyFromInvoices(invoiceIds, now);
+        int payments = archivedPaymentRepository.copyFromPayments(invoiceIds);
+        int history = archivedInvoiceStatusHistoryRepository.copyFromHistory(invoiceIds);
+        invoiceStatusHistoryRepository.deleteByInvoiceIds(invoiceIds);
+        paymentRepository.deleteByInvoiceIds(invoiceIds);
+        invoiceRepository.deleteByIdIn(invoiceIds);
+
+        FinancialArchiveYear summary = financialArchiveYearRepository.findById(year)
+            .orElseGet(() -> new FinancialArchiveYear(year));
+        summary.setInvoiceCount(summary.getInvoiceCount() + invoices);
+        summary.setPaymentCount(summary.getPaymentCount() + payments);
+        summary.setHistoryCount(summary.getHistoryCount() + history);
+        if (lastPaymentDate != null
+            && (summary.getLastPaymentDate() == null || lastPaymentDate.isAfter(summary.getLastPaymentDate()))) {
+            summary.setLastPaymentDate(lastPaymentDate);
+        }
+        summary.setArchivedAt(now);
+        financialArchiveYearRepository.save(summary);
+
+        return new ArchivedBatch(invoices, payments, history);
+    }
+}
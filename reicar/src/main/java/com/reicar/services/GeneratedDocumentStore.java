@@ -0,0 +1,250 @@
+package com.reicar.services;
+
+import com.reicar.config.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * PDFs já gerados (OS e extratos de cliente), guardados em disco em {@code reicar.documents.storage-dir}.
+ * O arquivo é identificado pela entidade e por uma versão calculada a partir dos dados que o documento mostra
+ * ({@link #version}): enquanto eles não mudam, o download repetido lê o arquivo sem gerar o PDF de novo.
+ * Uma versão nova substitui a anterior da mesma entidade, e alterações em OS, faturas e pagamentos removem
+ * os arquivos afetados após o commit. Acima de {@code reicar.documents.max-size}, os arquivos acessados há mais
+ * tempo são removidos.
+ * <p>
+ * Como a versão vem do conteúdo, um arquivo desatualizado nunca é servido, mesmo que a invalidação falhe
+ * ou a alteração venha de outra instância; a invalidação só libera espaço mais cedo.
+ */
+@Slf4j
+@Service
+public class GeneratedDocumentStore {
+
+    public static final String SERVICE_ORDER = "service-order";
+    public static final String CUSTOMER_STATEMENT = "customer-statement";
+
+    // Arquivos acessados há menos tempo que isso não são removidos pela limpeza (podem estar sendo enviados)
+    private static final long EVICTION_GRACE_MILLIS = 60_000;
+
+    private final Path root;
+    private final long maxBytes;
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+
+    public GeneratedDocumentStore(@Value("${reicar.documents.storage-dir:./data/documents}") String storageDir,
+                                  @Value("${reicar.documents.max-size:1GB}") DataSize maxSize,
+                                  MeterRegistry meterRegistry) {
+        this.root = Path.of(storageDir).toAbsolutePath().normalize();
+        this.maxBytes = maxSize.toBytes();
+        this.meterRegistry = meterRegistry;
+        try {
+            Files.createDirectories(root);
+            totalBytes.set(listFiles().stream().mapToLong(StoredFile::size).sum());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível preparar o diretório de documentos: " + root, e);
+        }
+        Gauge.builder("reicar.document.store.size", totalBytes, AtomicLong::get)
+            .description("Espaço ocupado pelos documentos gerados guardados em disco")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Versão do documento: hash SHA-256 dos valores informados, na ordem. Usada também como ETag.
+     */
+    public static String version(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path getServiceOrder(Long orderId, String version, ReportFileStore.ArtifactWriter renderer) throws IOException {
+        return get(SERVICE_ORDER, orderId, "os", version, renderer);
+    }
+
+    public Path getCustomerStatement(Long customerId, LocalDate startDate, LocalDate endDate, String version,
+                                     ReportFileStore.ArtifactWriter renderer) throws IOException {
+        return get(CUSTOMER_STATEMENT, customerId, startDate + "_" + endDate, version, renderer);
+    }
+
+    public void invalidateServiceOrderAfterCommit(Long orderId) {
+        invalidateNowAndAfterCommit(SERVICE_ORDER, List.of(orderId), variant -> true);
+    }
+
+    /**
+     * Remove os extratos do cliente que terminam em alguma das datas ou depois; os de períodos
+     * encerrados antes delas continuam válidos.
+     */
+    public void invalidateCustomerStatementsAfterCommit(Long customerId, LocalDate... dates) {
+        LocalDate earliest = Stream.of(dates).min(Comparator.naturalOrder()).orElseThrow();
+        invalidateNowAndAfterCommit(CUSTOMER_STATEMENT, List.of(customerId),
+            variant -> !LocalDate.parse(variant.substring(variant.indexOf('_') + 1)).isBefore(earliest));
+    }
+
+    /**
+     * Remove todos os extratos dos clientes, por exemplo após mesclar cadastros duplicados.
+     */
+    public void invalidateCustomersAfterCommit(List<Long> customerIds) {
+        invalidateNowAndAfterCommit(CUSTOMER_STATEMENT, List.copyOf(customerIds), variant -> true);
+    }
+
+    /**
+     * Devolve o arquivo da versão pedida, gerando-o com {@code renderer} se ainda não existir.
+     * Duas requisições simultâneas para a mesma versão podem gerar em dobro; o conteúdo é o mesmo.
+     */
+    private Path get(String kind, Long entityId, String variant, String version, ReportFileStore.ArtifactWriter renderer) throws IOException {
+        Path directory = root.resolve(kind).resolve(String.valueOf(entityId));
+        Path file = directory.resolve(variant + "_" + version + ".pdf");
+        try {
+            // A data de modificação marca o último acesso, usada na limpeza por tamanho
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            counter(kind, "hit").increment();
+            return file;
+        } catch (NoSuchFileException e) {
+            counter(kind, "miss").increment();
+        }
+
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, variant + "-", ".part");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                renderer.writeTo(outputStream);
+            }
+            long size = Files.size(temp);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            totalBytes.addAndGet(size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // Versões anteriores do mesmo documento não serão mais pedidas
+        deleteFiles(directory, name -> name.startsWith(variant + "_") && !name.equals(file.getFileName().toString()));
+        if (totalBytes.get() > maxBytes) {
+            evictLeastRecentlyUsed();
+        }
+        return file;
+    }
+
+    private void invalidateNowAndAfterCommit(String kind, List<Long> entityIds, Predicate<String> variants) {
+        Runnable invalidation = () -> entityIds.forEach(entityId -> {
+            try {
+                deleteFiles(root.resolve(kind).resolve(String.valueOf(entityId)),
+                    name -> name.endsWith(".pdf") && variants.test(name.substring(0, name.lastIndexOf('_'))));
+            } catch (IOException e) {
+                log.warn("Falha ao remover documentos de {} {}: {}", kind, entityId, e.getMessage());
+            }
+        });
+        AfterCommit.runNowAndAfterCommit(invalidation);
+    }
+
+    private void deleteFiles(Path directory, Predicate<String> names) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (names.test(file.getFileName().toString())) {
+                    delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove os arquivos acessados há mais tempo até o total cair para 90% do limite.
+     * O total é recalculado a partir do disco, corrigindo diferenças de remoções concorrentes.
+     */
+    synchronized void evictLeastRecentlyUsed() throws IOException {
+        List<StoredFile> files = listFiles();
+        long total = files.stream().mapToLong(StoredFile::size).sum();
+        totalBytes.set(total);
+
+        long target = maxBytes / 10 * 9;
+        long recent = System.currentTimeMillis() - EVICTION_GRACE_MILLIS;
+        files.sort(Comparator.comparingLong(StoredFile::lastAccess));
+        int removed = 0;
+        for (StoredFile stored : files) {
+            if (total <= target || stored.lastAccess() > recent) {
+                break;
+            }
+            delete(stored.path());
+            total -= stored.size();
+            removed++;
+        }
+        log.debug("Limpeza de documentos gerados: {} arquivos removidos, {} bytes em uso", removed, totalBytes.get());
+    }
+
+    private void delete(Path file) throws IOException {
+        try {
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                totalBytes.addAndGet(-size);
+            }
+        } catch (NoSuchFileException e) {
+            // Já removido por outra requisição
+        }
+    }
+
+    private List<StoredFile> listFiles() throws IOException {
+        List<StoredFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().endsWith(".pdf")) {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                        files.add(new StoredFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    } catch (NoSuchFileException e) {
+                        // Removido durante a listagem
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private Counter counter(String kind, String result) {
+        return Counter.builder("reicar.document.store")
+            .description("Downloads de documentos gerados servidos do disco (hit) ou gerados (miss)")
+            .tag("document", kind)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record StoredFile(Path path, long size, long lastAccess) {
+    }
+}
@@ -1,19 +1,31 @@
 package com.reicar.services;
 
+import com.reicar.config.Measured;
 import com.reicar.dtos.InvoiceDTO;
+import com.reicar.dtos.SearchMatchesDTO;
 import com.reicar.entities.Invoice;
 import com.reicar.entities.InvoiceStatusHistory;
 import com.reicar.entities.ServiceOrder;
 import com.reicar.entities.enums.InvoiceStatus;
 import com.reicar.entities.enums.ServiceStatus;
+import com.reicar.repositories.ArchivedInvoiceRepository;
 import com.reicar.repositories.InvoiceRepository;
+import com.reicar.repositories.InvoiceSpecifications;
 import com.reicar.repositories.InvoiceStatusHistoryRepository;
 import com.reicar.repositories.ServiceOrderRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,10 +36,27 @@ import java.util.List;
 public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
+    private final ArchivedInvoiceRepository archivedInvoiceRepository;
     private final InvoiceStatusHistoryRepository statusHistoryRepository;
     private final ServiceOrderRepository serviceOrderRepository;
-
+    private final DocumentNumberService documentNumberService;
+    private final SearchService searchService;
+    private final ReportCache reportCache;
+    private final GeneratedDocumentStore documentStore;
+    private final KpiCounters kpiCounters;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * O número é reservado antes da transação que grava a fatura (ver {@link DocumentNumberService}).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Measured
     public Invoice generateFromServiceOrder(Long serviceOrderId, String username) {
+        String invoiceNumber = documentNumberService.nextInvoiceNumber();
+        return transactionTemplate.execute(status -> createInvoice(serviceOrderId, invoiceNumber, username));
+    }
+
+    private Invoice createInvoice(Long serviceOrderId, String invoiceNumber, String username) {
         ServiceOrder serviceOrder = serviceOrderRepository.findByIdWithDetails(serviceOrderId)
             .orElseThrow(() -> new EntityNotFoundException("Ordem de serviço não encontrada: " + serviceOrderId));
 
@@ -35,12 +64,12 @@ public class InvoiceService {
             throw new IllegalStateException("Não é possível gerar fatura: Ordem de serviço não está finalizada");
         }
 
-        if (invoiceRepository.existsByServiceOrderId(serviceOrderId)) {
+        if (hasInvoice(serviceOrderId)) {
             throw new IllegalStateException("Já existe uma fatura para esta ordem de serviço");
         }
 
         Invoice invoice = Invoice.builder()
-            .invoiceNumber(generateNextInvoiceNumber())
+            .invoiceNumber(invoiceNumber)
             .issueDate(LocalDate.now())
             .status(InvoiceStatus.UNPAID)
             .serviceOrder(serviceOrder)
@@ -51,15 +80,13 @@ public class InvoiceService {
         invoice = invoiceRepository.save(invoice);
 
         recordStatusHistory(invoice, null, InvoiceStatus.UNPAID, username);
+        kpiCounters.invoiceIssued(InvoiceStatus.UNPAID, invoice.getTotalValue());
+        reportCache.invalidateAfterCommit(invoice.getCustomer().getId(), invoice.getIssueDate());
+        documentStore.invalidateCustomerStatementsAfterCommit(invoice.getCustomer().getId(), invoice.getIssueDate());
 
         return invoice;
     }
 
-    private String generateNextInvoiceNumber() {
-        long count = invoiceRepository.count() + 1;
-        return String.format("FAT-%d-%04d", LocalDate.now().getYear(), count);
-    }
-
     @Transactional(readOnly = true)
     public Invoice findById(Long id) {
         return invoiceRepository.findByIdWithCustomer(id)
@@ -96,60 +123,86 @@ public class InvoiceService {
 
     @Transactional(readOnly = true)
     public List<InvoiceDTO> searchByCustomerNameOrInvoiceNumber(String query) {
-        return invoiceRepository.searchByCustomerNameOrInvoiceNumber(query).stream()
-            .map(InvoiceDTO::from)
-            .toList();
+        return findWithFilters(null, null, null, query);
     }
 
     @Transactional(readOnly = true)
+    @Measured
     public List<InvoiceDTO> findWithFilters(InvoiceStatus status, LocalDate startDate, LocalDate endDate, String search) {
-        if (search != null && !search.isBlank()) {
-            return searchByCustomerNameOrInvoiceNumber(search);
+        SearchMatchesDTO searchMatches = matchSearch(search);
+        if (searchMatches != null && searchMatches.isEmpty()) {
+            return List.of();
         }
 
-        if (status != null && startDate != null && endDate != null) {
-            return invoiceRepository.findByStatusAndDateRange(status, startDate, endDate).stream()
-                .map(InvoiceDTO::from)
-                .toList();
-        }
+        Specification<Invoice> filters = InvoiceSpecifications.withFilters(status, startDate, endDate, null, searchMatches);
+        return invoiceRepository.findAll(filters, Sort.by(Sort.Direction.DESC, "issueDate", "id")).stream()
+            .map(InvoiceDTO::from)
+            .toList();
+    }
 
-        if (status != null) {
-            return findByStatus(status);
+    /**
+     * Listagem paginada sem contagem total: o Slice indica apenas se existe próxima página,
+     * então o custo não cresce com o total de faturas. Qualquer combinação de filtros
+     * (status, período, cliente, busca) vira um único SELECT; a busca textual é resolvida
+     * antes nos índices FULLTEXT.
+     */
+    @Transactional(readOnly = true)
+    @Measured
+    public Slice<InvoiceDTO> findWithFilters(InvoiceStatus status, LocalDate startDate, LocalDate endDate,
+                                             Long customerId, String search, Pageable pageable) {
+        SearchMatchesDTO searchMatches = matchSearch(search);
+        if (searchMatches != null && searchMatches.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
         }
 
-        if (startDate != null && endDate != null) {
-            return findByDateRange(startDate, endDate);
-        }
+        Specification<Invoice> filters = InvoiceSpecifications.withFilters(status, startDate, endDate, customerId, searchMatches);
+        return invoiceRepository.findBy(filters, query -> query.slice(pageable))
+            .map(InvoiceDTO::from);
+    }
 
-        return findAll();
+    private SearchMatchesDTO matchSearch(String search) {
+        return (search != null && !search.isBlank()) ? searchService.matchInvoices(search) : null;
     }
 
+    /**
+     * Cancela só faturas em aberto e sem pagamento. A condição é conferida pelo próprio UPDATE,
+     * então um pagamento confirmado ao mesmo tempo impede o cancelamento em vez de ser sobrescrito.
+     */
+    @Measured
     public Invoice cancelInvoice(Long invoiceId, String username) {
+        int updated = invoiceRepository.cancelIfUnpaid(invoiceId);
         Invoice invoice = findById(invoiceId);
-
-        if (invoice.hasPayments()) {
-            throw new IllegalStateException("Não é possível cancelar fatura com pagamentos registrados");
+        if (updated == 0) {
+            throw cancelRejection(invoice);
         }
 
-        InvoiceStatus previousStatus = invoice.getStatus();
-        invoice.setStatus(InvoiceStatus.CANCELLED);
-        invoice = invoiceRepository.save(invoice);
-
-        recordStatusHistory(invoice, previousStatus, InvoiceStatus.CANCELLED, username);
+        recordStatusHistory(invoice, InvoiceStatus.UNPAID, InvoiceStatus.CANCELLED, username);
+        kpiCounters.invoiceChanged(InvoiceStatus.UNPAID, BigDecimal.ZERO, InvoiceStatus.CANCELLED, BigDecimal.ZERO, invoice.getTotalValue());
+        reportCache.invalidateAfterCommit(invoice.getCustomer().getId(), invoice.getIssueDate());
+        documentStore.invalidateCustomerStatementsAfterCommit(invoice.getCustomer().getId(), invoice.getIssueDate());
 
         return invoice;
     }
 
+    // Motivo da recusa, a partir da situação atual da fatura
+    private static RuntimeException cancelRejection(Invoice invoice) {
+        if (invoice.getStatus() == InvoiceStatus.CANCELLED) {
+            return new IllegalStateException("Esta fatura já está cancelada");
+        }
+        return new IllegalStateException("Não é possível cancelar fatura com pagamentos registrados");
+    }
+
     public void updateInvoiceStatus(Invoice invoice, InvoiceStatus newStatus, String username) {
         InvoiceStatus previousStatus = invoice.getStatus();
         if (previousStatus != newStatus) {
             invoice.setStatus(newStatus);
             invoiceRepository.save(invoice);
             recordStatusHistory(invoice, previousStatus, newStatus, username);
+            kpiCounters.invoiceChanged(previousStatus, invoice.getPaidAmount(), newStatus, invoice.getPaidAmount(), invoice.getTotalValue());
         }
     }
 
-    private void recordStatusHistory(Invoice invoice, InvoiceStatus previousStatus, InvoiceStatus newStatus, String username) {
+    void recordStatusHistory(Invoice invoice, InvoiceStatus previousStatus, InvoiceStatus newStatus, String username) {
         InvoiceStatusHistory history = InvoiceStatusHistory.builder()
             .invoice(invoice)
             .previousStatus(previousStatus != null ? previousStatus : newStatus)
@@ -172,7 +225,13 @@ public class InvoiceService {
             return false;
         }
 
-        return !invoiceRepository.existsByServiceOrderId(serviceOrderId);
+        return !hasInvoice(serviceOrderId);
+    }
+
+    // A fatura pode ter sido movida para o arquivo junto com o ano em que foi emitida
+    private boolean hasInvoice(Long serviceOrderId) {
+        return invoiceRepository.existsByServiceOrderId(serviceOrderId)
+            || archivedInvoiceRepository.existsByServiceOrderId(serviceOrderId);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,199 @@
+package com.reicar.services;
+
+import com.reicar.config.AfterCommit;
+import com.reicar.dtos.ServiceOrderKpiDTO;
+import com.reicar.entities.Money;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.entities.enums.ServiceStatus;
+import com.reicar.repositories.DailyRevenueRollupRepository;
+import com.reicar.repositories.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores em memória dos cards de KPI: faturas e OS por situação (quantidade e valores) e receita
+ * diária dos últimos {@value #REVENUE_DAYS} dias. Os serviços registram as alterações, aplicadas só após
+ * o commit, e a leitura não acessa o banco.
+ * Os valores são recarregados do banco na inicialização e a cada {@code reicar.kpi.reconcile-interval},
+ * o que corrige alterações feitas por outra instância ou direto no banco.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KpiCounters {
+
+    // Cobre o mês corrente e a semana, com folga
+    static final int REVENUE_DAYS = 40;
+
+    private final InvoiceRepository invoiceRepository;
+    private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+
+    private final Map<InvoiceStatus, Tally> invoices = tallies(InvoiceStatus.class);
+    private final Map<ServiceStatus, Tally> serviceOrders = tallies(ServiceStatus.class);
+    private final ConcurrentMap<LocalDate, LongAdder> dailyRevenueCents = new ConcurrentHashMap<>();
+
+    public long invoiceCount(InvoiceStatus status) {
+        return invoices.get(status).count.sum();
+    }
+
+    public BigDecimal invoiceTotal(InvoiceStatus status) {
+        return Money.toBigDecimal(invoices.get(status).totalCents.sum());
+    }
+
+    // Total menos o valor pago
+    public BigDecimal invoiceOutstanding(InvoiceStatus status) {
+        Tally tally = invoices.get(status);
+        return Money.toBigDecimal(tally.totalCents.sum() - tally.partCents.sum());
+    }
+
+    public BigDecimal revenueBetween(LocalDate startDate, LocalDate endDate) {
+        long cents = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            LongAdder day = dailyRevenueCents.get(date);
+            cents += day != null ? day.sum() : 0;
+        }
+        return Money.toBigDecimal(cents);
+    }
+
+    public ServiceOrderKpiDTO serviceOrderKpis() {
+        Map<ServiceStatus, Long> countsByStatus = new EnumMap<>(ServiceStatus.class);
+        long count = 0;
+        long totalCents = 0;
+        long serviceCents = 0;
+        for (Map.Entry<ServiceStatus, Tally> entry : serviceOrders.entrySet()) {
+            Tally tally = entry.getValue();
+            long statusCount = tally.count.sum();
+            countsByStatus.put(entry.getKey(), statusCount);
+            count += statusCount;
+            totalCents += tally.totalCents.sum();
+            serviceCents += tally.partCents.sum();
+        }
+        return new ServiceOrderKpiDTO(count, Money.toBigDecimal(totalCents), Money.toBigDecimal(serviceCents), countsByStatus);
+    }
+
+    public void serviceOrderCreated(ServiceStatus status, BigDecimal totalValue, BigDecimal serviceValue) {
+        long totalCents = Money.toCents(totalValue);
+        long serviceCents = Money.toCents(serviceValue);
+        AfterCommit.run(() -> serviceOrders.get(status).add(1, totalCents, serviceCents));
+    }
+
+    public void invoiceIssued(InvoiceStatus status, BigDecimal totalValue) {
+        long totalCents = Money.toCents(totalValue);
+        AfterCommit.run(() -> invoices.get(status).add(1, totalCents, 0));
+    }
+
+    /**
+     * Move a fatura entre situações; o valor pago pode ter mudado junto (pagamento).
+     */
+    public void invoiceChanged(InvoiceStatus previousStatus, BigDecimal previousPaid,
+                               InvoiceStatus newStatus, BigDecimal newPaid, BigDecimal totalValue) {
+        long totalCents = Money.toCents(totalValue);
+        long previousPaidCents = Money.toCents(previousPaid);
+        long newPaidCents = Money.toCents(newPaid);
+        AfterCommit.run(() -> {
+            invoices.get(previousStatus).add(-1, -totalCents, -previousPaidCents);
+            invoices.get(newStatus).add(1, totalCents, newPaidCents);
+        });
+    }
+
+    public void paymentReceived(LocalDate paymentDate, BigDecimal amount) {
+        long cents = Money.toCents(amount);
+        AfterCommit.run(() -> dailyRevenueCents.computeIfAbsent(paymentDate, date -> new LongAdder()).add(cents));
+    }
+
+    /**
+     * Recarrega os contadores com um agregado por situação de faturas e OS e a consolidação diária
+     * recente. Os valores em memória são lidos logo antes de cada consulta, e cada contador recebe
+     * {@code agregado - valor lido}: as alterações aplicadas enquanto a consulta roda continuam somadas
+     * por cima do agregado. Uma alteração confirmada no banco entre a leitura e o início da consulta pode
+     * ser contada duas vezes; a diferença é corrigida na reconciliação seguinte.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reicar.kpi.reconcile-interval:5m}", initialDelayString = "${reicar.kpi.reconcile-interval:5m}")
+    public void reconcile() {
+        Map<InvoiceStatus, long[]> invoicesBefore = snapshot(invoices);
+        Map<ServiceStatus, long[]> serviceOrdersBefore = snapshot(serviceOrders);
+        Map<InvoiceStatus, long[]> invoiceTotals = new EnumMap<>(InvoiceStatus.class);
+        Map<ServiceStatus, long[]> serviceOrderTotals = new EnumMap<>(ServiceStatus.class);
+        for (Object[] row : invoiceRepository.summarizeStatusTotals()) {
+            long[] totals = {((Number) row[2]).longValue(), Money.toCents((BigDecimal) row[3]), Money.toCents((BigDecimal) row[4])};
+            String status = (String) row[1];
+            if ("INVOICE".equals(row[0])) {
+                invoiceTotals.put(InvoiceStatus.valueOf(status), totals);
+            } else {
+                serviceOrderTotals.put(ServiceStatus.valueOf(status), totals);
+            }
+        }
+        invoices.forEach((status, tally) -> tally.adjustTo(invoiceTotals.get(status), invoicesBefore.get(status)));
+        serviceOrders.forEach((status, tally) -> tally.adjustTo(serviceOrderTotals.get(status), serviceOrdersBefore.get(status)));
+
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(REVENUE_DAYS - 1);
+        Map<LocalDate, Long> revenueBefore = new HashMap<>();
+        dailyRevenueCents.forEach((date, day) -> revenueBefore.put(date, day.sum()));
+        Map<LocalDate, Long> revenue = new HashMap<>();
+        for (Object[] row : dailyRevenueRollupRepository.sumDailyBetweenDates(firstDay, today)) {
+            revenue.put((LocalDate) row[0], Money.toCents((BigDecimal) row[1]));
+        }
+        dailyRevenueCents.keySet().removeIf(date -> date.isBefore(firstDay));
+        for (LocalDate date = firstDay; !date.isAfter(today); date = date.plusDays(1)) {
+            long expected = revenue.getOrDefault(date, 0L);
+            LongAdder day = dailyRevenueCents.computeIfAbsent(date, d -> new LongAdder());
+            day.add(expected - revenueBefore.getOrDefault(date, 0L));
+        }
+        log.debug("Contadores de KPI recarregados do banco");
+    }
+
+    private static <E extends Enum<E>> Map<E, long[]> snapshot(Map<E, Tally> tallies) {
+        Map<E, long[]> values = new HashMap<>();
+        tallies.forEach((status, tally) -> values.put(status, tally.values()));
+        return values;
+    }
+
+    private static <E extends Enum<E>> Map<E, Tally> tallies(Class<E> type) {
+        Map<E, Tally> tallies = new EnumMap<>(type);
+        for (E status : type.getEnumConstants()) {
+            tallies.put(status, new Tally());
+        }
+        return tallies;
+    }
+
+    /**
+     * Quantidade e dois valores em centavos: total e valor pago (faturas) ou total e mão de obra (OS).
+     */
+    private static final class Tally {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalCents = new LongAdder();
+        private final LongAdder partCents = new LongAdder();
+
+        void add(long countDelta, long totalDelta, long partDelta) {
+            count.add(countDelta);
+            totalCents.add(totalDelta);
+            partCents.add(partDelta);
+        }
+
+        long[] values() {
+            return new long[]{count.sum(), totalCents.sum(), partCents.sum()};
+        }
+
+        // Soma a diferença entre o agregado e o valor lido antes da consulta; sem linha no agregado, a situação não tem registros
+        void adjustTo(long[] totals, long[] before) {
+            long[] expected = totals != null ? totals : new long[3];
+            add(expected[0] - before[0], expected[1] - before[1], expected[2] - before[2]);
+        }
+    }
+}
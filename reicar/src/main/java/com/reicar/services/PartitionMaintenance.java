@@ -0,0 +1,105 @@
+package com.reicar.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mantém as partições mensais de {@code payments} e {@code invoice_status_history} (migration V17):
+ * cria com antecedência as partições dos próximos {@code reicar.archive.partitions-ahead} meses,
+ * dividindo {@code pmax}, e remove as partições vazias de anos já arquivados.
+ * Sem efeito quando o banco não é MySQL ou a tabela não é particionada (ex.: H2 nos testes).
+ */
+@Slf4j
+@Component
+public class PartitionMaintenance {
+
+    static final List<String> PARTITIONED_TABLES = List.of("payments", "invoice_status_history");
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String OVERFLOW_PARTITION = "pmax";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private volatile Boolean mySql;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate, @Value("${reicar.archive.partitions-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createUpcomingPartitions() {
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+        for (String table : PARTITIONED_TABLES) {
+            Optional<YearMonth> last = monthlyPartitions(table).stream().max(YearMonth::compareTo);
+            if (last.isEmpty() || !last.get().isBefore(target)) {
+                continue;
+            }
+
+            StringBuilder sql = new StringBuilder("ALTER TABLE ").append(table)
+                .append(" REORGANIZE PARTITION ").append(OVERFLOW_PARTITION).append(" INTO (");
+            for (YearMonth month = last.get().plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+                sql.append("PARTITION ").append(PARTITION_NAME.format(month))
+                   .append(" VALUES LESS THAN (UNIX_TIMESTAMP('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00')), ");
+            }
+            sql.append("PARTITION ").append(OVERFLOW_PARTITION).append(" VALUES LESS THAN MAXVALUE)");
+
+            jdbcTemplate.execute(sql.toString());
+            log.info("Partições de {} criadas até {}", table, target);
+        }
+    }
+
+    /**
+     * Remove as partições mensais anteriores a {@code cutoff} que estejam vazias.
+     */
+    public void dropEmptyPartitionsBefore(LocalDate cutoff) {
+        YearMonth cutoffMonth = YearMonth.from(cutoff);
+        for (String table : PARTITIONED_TABLES) {
+            List<String> empty = monthlyPartitions(table).stream()
+                .filter(month -> month.isBefore(cutoffMonth))
+                .map(PARTITION_NAME::format)
+                .filter(partition -> jdbcTemplate.queryForList(
+                    "SELECT 1 FROM " + table + " PARTITION (" + partition + ") LIMIT 1", Integer.class).isEmpty())
+                .toList();
+            if (empty.isEmpty()) {
+                continue;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", empty));
+            log.info("Partições vazias removidas de {}: {}", table, empty);
+        }
+    }
+
+    // Meses das partições pYYYYMM existentes; vazio se a tabela não é particionada
+    private List<YearMonth> monthlyPartitions(String table) {
+        if (!isMySql()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL", String.class, table)
+            .stream()
+            .filter(name -> name.matches("p\\d{6}"))
+            .map(name -> YearMonth.parse(name, PARTITION_NAME))
+            .toList();
+    }
+
+    private boolean isMySql() {
+        if (mySql == null) {
+            mySql = "MySQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return mySql;
+    }
+}
@@ -0,0 +1,93 @@
+package com.reicar.services;
+
+import com.reicar.dtos.PaymentFormDTO;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.Payment;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.repositories.DailyRevenueRollupRepository;
+import com.reicar.repositories.InvoiceRepository;
+import com.reicar.repositories.PaymentRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentRecorder {
+
+    private final PaymentRepository paymentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceService invoiceService;
+    private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+    private final ReportCache reportCache;
+    private final GeneratedDocumentStore documentStore;
+    private final KpiCounters kpiCounters;
+
+    /**
+     * Grava um pagamento em uma transação. O saldo é conferido e atualizado pelo próprio UPDATE
+     * da fatura, sem ler e regravar o valor pago: pagamentos simultâneos não se sobrescrevem
+     * nem ultrapassam o total.
+     */
+    @Transactional
+    public Payment record(PaymentFormDTO dto, String username) {
+        if (dto.amount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Valor do pagamento deve ser maior que zero");
+        }
+
+        int updated = invoiceRepository.applyPayment(dto.invoiceId(), dto.amount());
+        Invoice invoice = invoiceRepository.findByIdWithCustomer(dto.invoiceId())
+            .orElseThrow(() -> new EntityNotFoundException("Fatura não encontrada: " + dto.invoiceId()));
+        if (updated == 0) {
+            throw rejection(invoice, dto.amount());
+        }
+
+        // Antes deste pagamento a fatura estava em aberto: parcial se já havia valor pago
+        InvoiceStatus previousStatus = invoice.getPaidAmount().compareTo(dto.amount()) > 0
+            ? InvoiceStatus.PARTIAL
+            : InvoiceStatus.UNPAID;
+
+        Payment payment = paymentRepository.save(Payment.builder()
+            .invoice(invoice)
+            .amount(dto.amount())
+            .paymentDate(LocalDateTime.now())
+            .paymentMethod(dto.paymentMethod())
+            .recordedBy(username)
+            .build());
+
+        // Consolidação diária atualizada na mesma transação do pagamento
+        dailyRevenueRollupRepository.accumulate(
+            payment.getPaymentDate().toLocalDate(), payment.getPaymentMethod().name(), payment.getAmount());
+
+        if (invoice.getStatus() != previousStatus) {
+            invoiceService.recordStatusHistory(invoice, previousStatus, invoice.getStatus(), username);
+        }
+        kpiCounters.invoiceChanged(previousStatus, invoice.getPaidAmount().subtract(dto.amount()),
+            invoice.getStatus(), invoice.getPaidAmount(), invoice.getTotalValue());
+        kpiCounters.paymentReceived(payment.getPaymentDate().toLocalDate(), payment.getAmount());
+
+        // Receita do dia do pagamento e situação da fatura no período de emissão
+        reportCache.invalidateAfterCommit(invoice.getCustomer().getId(),
+            invoice.getIssueDate(), payment.getPaymentDate().toLocalDate());
+        documentStore.invalidateCustomerStatementsAfterCommit(invoice.getCustomer().getId(),
+            invoice.getIssueDate(), payment.getPaymentDate().toLocalDate());
+
+        return payment;
+    }
+
+    // Motivo da recusa, a partir da situação atual da fatura
+    private static RuntimeException rejection(Invoice invoice, BigDecimal amount) {
+        if (invoice.getStatus() == InvoiceStatus.CANCELLED) {
+            return new IllegalStateException("Não é possível registrar pagamento para fatura cancelada");
+        }
+        if (invoice.getStatus() == InvoiceStatus.PAID) {
+            return new IllegalStateException("Esta fatura já está totalmente paga");
+        }
+        return new IllegalArgumentException(
+            String.format("Valor do pagamento (R$ %.2f) excede o saldo restante (R$ %.2f)",
+                amount, invoice.getRemainingBalance()));
+    }
+}
@@ -1,23 +1,27 @@
 package com.reicar.services;
 
+import com.reicar.config.Measured;
 import com.reicar.dtos.PaymentDTO;
 import com.reicar.dtos.PaymentFormDTO;
-import com.reicar.entities.Invoice;
 import com.reicar.entities.Payment;
-import com.reicar.entities.enums.InvoiceStatus;
 import com.reicar.entities.enums.PaymentMethod;
 import com.reicar.repositories.InvoiceRepository;
 import com.reicar.repositories.PaymentRepository;
-import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -25,60 +29,42 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final InvoiceRepository invoiceRepository;
-    private final InvoiceService invoiceService;
-
+    private final PaymentRecorder paymentRecorder;
+
+    @Value("${reicar.payments.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Registra o pagamento sem lock na fatura ({@link PaymentRecorder}). Conflitos transitórios
+     * do banco, como deadlock ou espera de lock esgotada, repetem a transação inteira até
+     * {@code reicar.payments.max-attempts} vezes; por isso este método não participa de transação externa.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Measured
     public Payment recordPayment(PaymentFormDTO dto, String username) {
-        Invoice invoice = invoiceRepository.findById(dto.invoiceId())
-            .orElseThrow(() -> new EntityNotFoundException("Fatura não encontrada: " + dto.invoiceId()));
-
-        if (invoice.getStatus() == InvoiceStatus.CANCELLED) {
-            throw new IllegalStateException("Não é possível registrar pagamento para fatura cancelada");
-        }
-
-        if (invoice.getStatus() == InvoiceStatus.PAID) {
-            throw new IllegalStateException("Esta fatura já está totalmente paga");
-        }
-
-        if (dto.amount().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Valor do pagamento deve ser maior que zero");
-        }
-
-        BigDecimal remainingBalance = invoice.getRemainingBalance();
-        if (dto.amount().compareTo(remainingBalance) > 0) {
-            throw new IllegalArgumentException(
-                String.format("Valor do pagamento (R$ %.2f) excede o saldo restante (R$ %.2f)",
-                    dto.amount(), remainingBalance));
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return paymentRecorder.record(dto, username);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new IllegalStateException(
+                        "A fatura está sendo alterada por outro usuário. Tente registrar o pagamento novamente.", e);
+                }
+                log.debug("Conflito ao registrar pagamento da fatura {} (tentativa {}): {}",
+                    dto.invoiceId(), attempt, e.getMessage());
+                backOff(attempt);
+            }
         }
-
-        Payment payment = Payment.builder()
-            .invoice(invoice)
-            .amount(dto.amount())
-            .paymentDate(LocalDateTime.now())
-            .paymentMethod(dto.paymentMethod())
-            .recordedBy(username)
-            .build();
-
-        payment = paymentRepository.save(payment);
-
-        invoice.addPayment(payment);
-        updateInvoiceStatusBasedOnPayment(invoice, username);
-
-        return payment;
     }
 
-    private void updateInvoiceStatusBasedOnPayment(Invoice invoice, String username) {
-        BigDecimal remainingBalance = invoice.getRemainingBalance();
-        InvoiceStatus newStatus;
-
-        if (remainingBalance.compareTo(BigDecimal.ZERO) <= 0) {
-            newStatus = InvoiceStatus.PAID;
-        } else if (invoice.getPaidAmount().compareTo(BigDecimal.ZERO) > 0) {
-            newStatus = InvoiceStatus.PARTIAL;
-        } else {
-            newStatus = InvoiceStatus.UNPAID;
+    // Espera curta e aleatória, crescente a cada tentativa, para as transações em conflito não colidirem de novo
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(10, 50) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Registro de pagamento interrompido", e);
         }
-
-        invoiceService.updateInvoiceStatus(invoice, newStatus, username);
     }
 
     @Transactional(readOnly = true)
@@ -112,6 +98,7 @@ public class PaymentService {
     }
 
     @Transactional(readOnly = true)
+    @Measured
     public List<PaymentDTO> findWithFilters(LocalDate startDate, LocalDate endDate, PaymentMethod method) {
         if (startDate != null && endDate != null) {
             return findByDateRange(startDate, endDate);
@@ -4,16 +4,21 @@ import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import com.reicar.config.Measured;
 import com.reicar.dtos.*;
+import com.reicar.entities.Money;
 import com.reicar.entities.enums.PaymentMethod;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -21,12 +26,17 @@ import java.util.Map;
 public class PdfExportService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private static final Font TITLE_FONT = new Font(Font.HELVETICA, 18, Font.BOLD);
     private static final Font HEADER_FONT = new Font(Font.HELVETICA, 12, Font.BOLD);
     private static final Font NORMAL_FONT = new Font(Font.HELVETICA, 10, Font.NORMAL);
     private static final Font SMALL_FONT = new Font(Font.HELVETICA, 8, Font.NORMAL);
     private static final Color HEADER_BG = new Color(52, 73, 94);
     private static final Color ALT_ROW_BG = new Color(236, 240, 241);
+    // Incrementar ao mudar o layout do extrato, para que os PDFs já guardados sejam gerados de novo
+    private static final int STATEMENT_LAYOUT_VERSION = 1;
+    // Linhas acumuladas na tabela antes de serem escritas no PDF (modo streaming)
+    private static final int ROWS_PER_FLUSH = 200;
 
     private final ReportService reportService;
 
@@ -52,6 +62,48 @@ public class PdfExportService {
         }
     }
 
+    /**
+     * Escreve o relatório de receitas direto no stream de saída. As faturas são lidas do banco
+     * em streaming e a tabela é descarregada a cada {@value #ROWS_PER_FLUSH} linhas.
+     */
+    public void writeRevenueReportPdf(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        writeRevenueReportPdf(startDate, endDate, outputStream, ReportProgress.NONE);
+    }
+
+    /**
+     * Igual a {@link #writeRevenueReportPdf(LocalDate, LocalDate, OutputStream)}, informando o andamento
+     * a cada bloco de linhas descarregado.
+     */
+    @Measured
+    public void writeRevenueReportPdf(LocalDate startDate, LocalDate endDate, OutputStream outputStream, ReportProgress progress) {
+        RevenueReportDTO summary = reportService.generateRevenueReportSummary(startDate, endDate);
+
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        writer.setCloseStream(false);
+        document.open();
+
+        addTitle(document, "Relatório de Receitas");
+        addPeriodInfo(document, startDate, endDate, summary.generatedAt());
+
+        addSummarySection(document, summary);
+        addRevenueByMethodSection(document, summary.revenueByMethod());
+
+        addSectionHeader(document, "Faturas", 10);
+        PdfPTable table = createInvoicesTable();
+        table.setComplete(false);
+        RowCounter rows = new RowCounter(progress, summary.invoiceCount());
+        reportService.forEachRevenueReportInvoice(startDate, endDate, invoice -> {
+            addInvoiceRow(table, invoice, rows.isAltRow());
+            rows.next(document, table);
+        });
+        rows.finish();
+        table.setComplete(true);
+        document.add(table);
+
+        document.close();
+    }
+
     public byte[] generateCustomerStatementPdf(Long customerId, LocalDate startDate, LocalDate endDate) {
         CustomerStatementDTO statement = reportService.generateCustomerStatement(customerId, startDate, endDate);
 
@@ -65,6 +117,7 @@ public class PdfExportService {
             addPeriodInfo(document, startDate, endDate, statement.generatedAt());
 
             addStatementSummary(document, statement);
+            addStatementEntries(document, statement);
             addStatementInvoices(document, statement);
             addStatementPayments(document, statement);
 
@@ -75,6 +128,74 @@ public class PdfExportService {
         }
     }
 
+    /**
+     * Versão do PDF do extrato: muda quando o cadastro do cliente ou alguma fatura ou pagamento até o fim
+     * do período muda. A data "Gerado em" não entra na versão; o PDF guardado mantém a da primeira geração.
+     */
+    public String customerStatementVersion(Long customerId, LocalDate startDate, LocalDate endDate) {
+        List<Object> parts = new ArrayList<>(List.of(STATEMENT_LAYOUT_VERSION, customerId, startDate, endDate));
+        parts.addAll(reportService.customerStatementFingerprint(customerId, endDate));
+        return GeneratedDocumentStore.version(parts.toArray());
+    }
+
+    /**
+     * Escreve o extrato do cliente direto no stream de saída, com faturas e pagamentos lidos
+     * em streaming e descarregados em blocos de {@value #ROWS_PER_FLUSH} linhas.
+     */
+    @Measured
+    public void writeCustomerStatementPdf(Long customerId, LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        CustomerStatementDTO summary = reportService.generateCustomerStatementSummary(customerId, startDate, endDate);
+
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        writer.setCloseStream(false);
+        document.open();
+
+        addTitle(document, "Extrato do Cliente");
+        addCustomerInfo(document, summary);
+        addPeriodInfo(document, startDate, endDate, summary.generatedAt());
+
+        addStatementSummary(document, summary);
+
+        addSectionHeader(document, "Movimentação", 10);
+        PdfPTable entriesTable = createStatementEntriesTable();
+        entriesTable.setComplete(false);
+        RowCounter entryRows = new RowCounter();
+        reportService.forEachCustomerStatementEntry(customerId, startDate, endDate, summary.openingBalance(), entry -> {
+            addStatementEntryRow(entriesTable, entry, entryRows.isAltRow());
+            entryRows.next(document, entriesTable);
+        });
+        entriesTable.setComplete(true);
+        document.add(entriesTable);
+
+        addSectionHeader(document, "Faturas", 20);
+        PdfPTable invoicesTable = createStatementInvoicesTable();
+        invoicesTable.setComplete(false);
+        RowCounter invoiceRows = new RowCounter();
+        reportService.forEachCustomerStatementInvoice(customerId, startDate, endDate, invoice -> {
+            addStatementInvoiceRow(invoicesTable, invoice, invoiceRows.isAltRow());
+            invoiceRows.next(document, invoicesTable);
+        });
+        invoicesTable.setComplete(true);
+        document.add(invoicesTable);
+
+        // Pagamentos sempre têm valor positivo: total zero significa seção vazia
+        if (summary.totalPaid().signum() > 0) {
+            addSectionHeader(document, "Pagamentos", 20);
+            PdfPTable paymentsTable = createStatementPaymentsTable();
+            paymentsTable.setComplete(false);
+            RowCounter paymentRows = new RowCounter();
+            reportService.forEachCustomerStatementPayment(customerId, startDate, endDate, payment -> {
+                addStatementPaymentRow(paymentsTable, payment, paymentRows.isAltRow());
+                paymentRows.next(document, paymentsTable);
+            });
+            paymentsTable.setComplete(true);
+            document.add(paymentsTable);
+        }
+
+        document.close();
+    }
+
     private void addTitle(Document document, String title) throws DocumentException {
         Paragraph titleParagraph = new Paragraph(title, TITLE_FONT);
         titleParagraph.setAlignment(Element.ALIGN_CENTER);
@@ -152,6 +273,7 @@ public class PdfExportService {
         table.setHorizontalAlignment(Element.ALIGN_LEFT);
         table.setSpacingAfter(20);
 
+        addSummaryRow(table, "Saldo Anterior:", formatCurrency(statement.openingBalance()));
         addSummaryRow(table, "Total Faturado:", formatCurrency(statement.totalInvoiced()));
         addSummaryRow(table, "Total Pago:", formatCurrency(statement.totalPaid()));
         addSummaryRow(table, "Saldo Devedor:", formatCurrency(statement.balance()));
@@ -193,16 +315,9 @@ public class PdfExportService {
     }
 
     private void addInvoicesSection(Document document, RevenueReportDTO report) throws DocumentException {
-        Paragraph header = new Paragraph("Faturas", HEADER_FONT);
-        header.setSpacingBefore(10);
-        header.setSpacingAfter(10);
-        document.add(header);
-
-        PdfPTable table = new PdfPTable(6);
-        table.setWidthPercentage(100);
-        table.setWidths(new float[]{15, 25, 15, 15, 15, 15});
+        addSectionHeader(document, "Faturas", 10);
 
-        addTableHeader(table, "Número", "Cliente", "Data", "Valor", "Pago", "Status");
+        PdfPTable table = createInvoicesTable();
 
         int row = 0;
         for (InvoiceDTO invoice : report.invoices()) {
@@ -214,26 +329,30 @@ public class PdfExportService {
         document.add(table);
     }
 
-    private void addStatementInvoices(Document document, CustomerStatementDTO statement) throws DocumentException {
-        Paragraph header = new Paragraph("Faturas", HEADER_FONT);
-        header.setSpacingBefore(10);
-        header.setSpacingAfter(10);
-        document.add(header);
+    private void addStatementEntries(Document document, CustomerStatementDTO statement) throws DocumentException {
+        addSectionHeader(document, "Movimentação", 10);
 
-        PdfPTable table = new PdfPTable(5);
-        table.setWidthPercentage(100);
-        table.setWidths(new float[]{20, 20, 20, 20, 20});
+        PdfPTable table = createStatementEntriesTable();
 
-        addTableHeader(table, "Número", "Data", "Valor", "Pago", "Status");
+        int row = 0;
+        for (CustomerStatementEntryDTO entry : statement.entries()) {
+            boolean altRow = row % 2 == 1;
+            addStatementEntryRow(table, entry, altRow);
+            row++;
+        }
+
+        document.add(table);
+    }
+
+    private void addStatementInvoices(Document document, CustomerStatementDTO statement) throws DocumentException {
+        addSectionHeader(document, "Faturas", 20);
+
+        PdfPTable table = createStatementInvoicesTable();
 
         int row = 0;
         for (InvoiceDTO invoice : statement.invoices()) {
             boolean altRow = row % 2 == 1;
-            addCell(table, invoice.invoiceNumber(), altRow);
-            addCell(table, invoice.issueDate().format(DATE_FORMATTER), altRow);
-            addCell(table, formatCurrency(invoice.totalValue()), altRow);
-            addCell(table, formatCurrency(invoice.paidAmount()), altRow);
-            addCell(table, translateStatus(invoice.status().name()), altRow);
+            addStatementInvoiceRow(table, invoice, altRow);
             row++;
         }
 
@@ -245,31 +364,67 @@ public class PdfExportService {
             return;
         }
 
-        Paragraph header = new Paragraph("Pagamentos", HEADER_FONT);
-        header.setSpacingBefore(20);
-        header.setSpacingAfter(10);
-        document.add(header);
-
-        PdfPTable table = new PdfPTable(4);
-        table.setWidthPercentage(100);
-        table.setWidths(new float[]{25, 25, 25, 25});
+        addSectionHeader(document, "Pagamentos", 20);
 
-        addTableHeader(table, "Data", "Fatura", "Valor", "Método");
+        PdfPTable table = createStatementPaymentsTable();
 
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
         int row = 0;
         for (PaymentDTO payment : statement.payments()) {
             boolean altRow = row % 2 == 1;
-            addCell(table, payment.paymentDate().format(dateTimeFormatter), altRow);
-            addCell(table, payment.invoiceNumber(), altRow);
-            addCell(table, formatCurrency(payment.amount()), altRow);
-            addCell(table, payment.paymentMethodDisplay(), altRow);
+            addStatementPaymentRow(table, payment, altRow);
             row++;
         }
 
         document.add(table);
     }
 
+    private void addSectionHeader(Document document, String title, float spacingBefore) throws DocumentException {
+        Paragraph header = new Paragraph(title, HEADER_FONT);
+        header.setSpacingBefore(spacingBefore);
+        header.setSpacingAfter(10);
+        document.add(header);
+    }
+
+    private PdfPTable createInvoicesTable() throws DocumentException {
+        PdfPTable table = new PdfPTable(6);
+        table.setWidthPercentage(100);
+        table.setWidths(new float[]{15, 25, 15, 15, 15, 15});
+        table.setHeaderRows(1);
+
+        addTableHeader(table, "Número", "Cliente", "Data", "Valor", "Pago", "Status");
+        return table;
+    }
+
+    private PdfPTable createStatementInvoicesTable() throws DocumentException {
+        PdfPTable table = new PdfPTable(5);
+        table.setWidthPercentage(100);
+        table.setWidths(new float[]{20, 20, 20, 20, 20});
+        table.setHeaderRows(1);
+
+        addTableHeader(table, "Número", "Data", "Valor", "Pago", "Status");
+        return table;
+    }
+
+    private PdfPTable createStatementEntriesTable() throws DocumentException {
+        PdfPTable table = new PdfPTable(6);
+        table.setWidthPercentage(100);
+        table.setWidths(new float[]{15, 17, 26, 14, 14, 14});
+        table.setHeaderRows(1);
+
+        addTableHeader(table, "Data", "Fatura", "Descrição", "Débito", "Crédito", "Saldo");
+        return table;
+    }
+
+    private PdfPTable createStatementPaymentsTable() throws DocumentException {
+        PdfPTable table = new PdfPTable(4);
+        table.setWidthPercentage(100);
+        table.setWidths(new float[]{25, 25, 25, 25});
+        table.setHeaderRows(1);
+
+        addTableHeader(table, "Data", "Fatura", "Valor", "Método");
+        return table;
+    }
+
     private void addTableHeader(PdfPTable table, String... headers) {
         for (String header : headers) {
             PdfPCell cell = new PdfPCell(new Phrase(header, new Font(Font.HELVETICA, 9, Font.BOLD, Color.WHITE)));
@@ -289,6 +444,30 @@ public class PdfExportService {
         addCell(table, translateStatus(invoice.status().name()), altRow);
     }
 
+    private void addStatementInvoiceRow(PdfPTable table, InvoiceDTO invoice, boolean altRow) {
+        addCell(table, invoice.invoiceNumber(), altRow);
+        addCell(table, invoice.issueDate().format(DATE_FORMATTER), altRow);
+        addCell(table, formatCurrency(invoice.totalValue()), altRow);
+        addCell(table, formatCurrency(invoice.paidAmount()), altRow);
+        addCell(table, translateStatus(invoice.status().name()), altRow);
+    }
+
+    private void addStatementEntryRow(PdfPTable table, CustomerStatementEntryDTO entry, boolean altRow) {
+        addCell(table, entry.entryDate().format(entry.isInvoice() ? DATE_FORMATTER : DATE_TIME_FORMATTER), altRow);
+        addCell(table, entry.invoiceNumber(), altRow);
+        addCell(table, entry.description(), altRow);
+        addCell(table, entry.debit().signum() != 0 ? formatCurrency(entry.debit()) : "-", altRow);
+        addCell(table, entry.credit().signum() != 0 ? formatCurrency(entry.credit()) : "-", altRow);
+        addCell(table, formatCurrency(entry.runningBalance()), altRow);
+    }
+
+    private void addStatementPaymentRow(PdfPTable table, PaymentDTO payment, boolean altRow) {
+        addCell(table, payment.paymentDate().format(DATE_TIME_FORMATTER), altRow);
+        addCell(table, payment.invoiceNumber(), altRow);
+        addCell(table, formatCurrency(payment.amount()), altRow);
+        addCell(table, payment.paymentMethodDisplay(), altRow);
+    }
+
     private void addCell(PdfPTable table, String text, boolean altRow) {
         PdfPCell cell = new PdfPCell(new Phrase(text, SMALL_FONT));
         if (altRow) {
@@ -300,7 +479,7 @@ public class PdfExportService {
     }
 
     private String formatCurrency(BigDecimal value) {
-        return String.format("R$ %.2f", value != null ? value : BigDecimal.ZERO);
+        return Money.format(value);
     }
 
     private String translateStatus(String status) {
@@ -312,4 +491,39 @@ public class PdfExportService {
             default -> status;
         };
     }
+
+    /**
+     * Conta as linhas de uma tabela incompleta e a descarrega no documento a cada
+     * {@value #ROWS_PER_FLUSH} linhas, liberando as linhas já escritas da memória.
+     */
+    private static final class RowCounter {
+        private final ReportProgress progress;
+        private final long totalRows;
+        private int count;
+
+        RowCounter() {
+            this(ReportProgress.NONE, 0);
+        }
+
+        RowCounter(ReportProgress progress, long totalRows) {
+            this.progress = progress;
+            this.totalRows = totalRows;
+        }
+
+        boolean isAltRow() {
+            return count % 2 == 1;
+        }
+
+        void next(Document document, PdfPTable table) {
+            count++;
+            if (count % ROWS_PER_FLUSH == 0) {
+                document.add(table);
+                progress.update(count, totalRows);
+            }
+        }
+
+        void finish() {
+            progress.update(count, totalRows);
+        }
+    }
 }
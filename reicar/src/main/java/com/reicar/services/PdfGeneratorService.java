@@ -4,21 +4,39 @@ import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import com.reicar.entities.MechanicServiceOrder; // Importação para verificação de tipo
+import com.reicar.entities.Money;
 import com.reicar.entities.ServiceItem;
 import com.reicar.entities.ServiceOrder;
-import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Service
 public class PdfGeneratorService {
 
-    public void export(HttpServletResponse response, ServiceOrder order) throws IOException {
+    // Incrementar ao mudar o layout, para que os PDFs já guardados sejam gerados de novo
+    private static final int LAYOUT_VERSION = 1;
+
+    /**
+     * Versão do PDF da OS: muda quando algum dado impresso no documento muda.
+     */
+    public String contentVersion(ServiceOrder order) {
+        List<Object> parts = new ArrayList<>(List.of(LAYOUT_VERSION, order.getId()));
+        parts.addAll(Arrays.asList(order.getOrderNumber(), order.getCustomer().getName(), order.getEntryDate(),
+            order instanceof MechanicServiceOrder, order.partsMarkupPercent(), order.getServiceValue(), order.getTotalValue()));
+        for (ServiceItem item : order.getItems()) {
+            parts.addAll(Arrays.asList(item.getQuantity(), item.getDescription(), item.getUnitPrice()));
+        }
+        return GeneratedDocumentStore.version(parts.toArray());
+    }
+
+    public void export(OutputStream outputStream, ServiceOrder order) throws IOException {
         Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, response.getOutputStream());
+        PdfWriter.getInstance(document, outputStream);
 
         document.open();
 
@@ -48,28 +66,25 @@ public class PdfGeneratorService {
         table.addCell(new Phrase("Preço Unit.", fontLabel));
         table.addCell(new Phrase("Total (c/ Markup)", fontLabel));
 
-        // Define markup baseado no tipo
-        BigDecimal markup = (order instanceof MechanicServiceOrder) ? new BigDecimal("1.30") : BigDecimal.ONE;
+        // Mesmo markup usado no cálculo do total da OS
+        int markupPercent = order.partsMarkupPercent();
 
         for (ServiceItem item : order.getItems()) {
+            Money unitPrice = Money.of(item.getUnitPrice());
+
             table.addCell(String.valueOf(item.getQuantity()));
             table.addCell(item.getDescription());
-            table.addCell("R$ " + item.getUnitPrice());
-
-            BigDecimal lineTotal = item.getUnitPrice()
-                    .multiply(BigDecimal.valueOf(item.getQuantity()))
-                    .multiply(markup);
-
-            table.addCell("R$ " + lineTotal.setScale(2, RoundingMode.HALF_UP));
+            table.addCell(unitPrice.format());
+            table.addCell(unitPrice.times(item.getQuantity()).withMarkup(markupPercent).format());
         }
         document.add(table);
 
         // Resumo Financeiro
         document.add(new Paragraph("\n"));
-        document.add(new Paragraph("Valor Mão de Obra: R$ " + order.getServiceValue().setScale(2, RoundingMode.HALF_UP)));
+        document.add(new Paragraph("Valor Mão de Obra: " + Money.format(order.getServiceValue())));
 
         Font fontTotal = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
-        Paragraph total = new Paragraph("VALOR TOTAL FINAL: R$ " + order.getTotalValue(), fontTotal);
+        Paragraph total = new Paragraph("VALOR TOTAL FINAL: " + Money.format(order.getTotalValue()), fontTotal);
         total.setSpacingBefore(10f);
         document.add(total);
 
@@ -0,0 +1,160 @@
+package com.reicar.services;
+
+import com.reicar.config.AfterCommit;
+import com.reicar.dtos.CustomerStatementDTO;
+import com.reicar.dtos.RevenueReportDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória do relatório de receitas e do extrato de cliente exibidos na tela.
+ * Cada tipo guarda no máximo {@code reicar.reports.cache.max-entries} períodos (descarta o menos usado)
+ * por até {@code reicar.reports.cache.ttl}.
+ * Pagamentos, faturas geradas e cancelamentos invalidam, após o commit, apenas os períodos que contêm
+ * as datas alteradas e os extratos do cliente afetado. Alterações feitas por outra instância ou direto
+ * no banco só aparecem ao expirar o TTL.
+ */
+@Service
+public class ReportCache {
+
+    private final ReportService reportService;
+    private final long ttlNanos;
+    private final LruCache<RevenueKey, RevenueReportDTO> revenueReports;
+    private final LruCache<StatementKey, CustomerStatementDTO> customerStatements;
+
+    // Incrementado a cada invalidação: um relatório calculado antes dela não é guardado
+    private final AtomicLong generation = new AtomicLong();
+
+    public ReportCache(ReportService reportService,
+                       MeterRegistry meterRegistry,
+                       @Value("${reicar.reports.cache.max-entries:200}") int maxEntries,
+                       @Value("${reicar.reports.cache.ttl:10m}") Duration ttl) {
+        this.reportService = reportService;
+        this.ttlNanos = ttl.toNanos();
+        this.revenueReports = new LruCache<>(maxEntries, meterRegistry, "revenue");
+        this.customerStatements = new LruCache<>(maxEntries, meterRegistry, "customer-statement");
+    }
+
+    public RevenueReportDTO getRevenueReport(LocalDate startDate, LocalDate endDate) {
+        return revenueReports.get(new RevenueKey(startDate, endDate),
+            () -> reportService.generateRevenueReport(startDate, endDate));
+    }
+
+    public CustomerStatementDTO getCustomerStatement(Long customerId, LocalDate startDate, LocalDate endDate) {
+        return customerStatements.get(new StatementKey(customerId, startDate, endDate),
+            () -> reportService.generateCustomerStatement(customerId, startDate, endDate));
+    }
+
+    /**
+     * Invalida os relatórios de receitas cujo período contém alguma das datas e os extratos do cliente
+     * que terminam nelas ou depois (o saldo anterior do extrato inclui todo o histórico).
+     * Dentro de uma transação, repete a invalidação após o commit.
+     */
+    public void invalidateAfterCommit(Long customerId, LocalDate... dates) {
+        List<LocalDate> changedDates = List.of(dates);
+        LocalDate earliest = Collections.min(changedDates);
+        invalidateNowAndAfterCommit(() -> {
+            revenueReports.removeIf(key -> changedDates.stream().anyMatch(key::contains));
+            customerStatements.removeIf(key -> key.customerId().equals(customerId) && !key.endDate().isBefore(earliest));
+        });
+    }
+
+    /**
+     * Invalida todos os extratos dos clientes, por exemplo após mesclar cadastros duplicados.
+     * Os totais do relatório de receitas não mudam.
+     */
+    public void invalidateCustomersAfterCommit(Collection<Long> customerIds) {
+        Set<Long> affected = Set.copyOf(customerIds);
+        invalidateNowAndAfterCommit(() -> customerStatements.removeIf(key -> affected.contains(key.customerId())));
+    }
+
+    private void invalidateNowAndAfterCommit(Runnable invalidation) {
+        AfterCommit.runNowAndAfterCommit(() -> invalidate(invalidation));
+    }
+
+    private void invalidate(Runnable invalidation) {
+        generation.incrementAndGet();
+        invalidation.run();
+    }
+
+    private record RevenueKey(LocalDate startDate, LocalDate endDate) {
+        boolean contains(LocalDate date) {
+            return !date.isBefore(startDate) && !date.isAfter(endDate);
+        }
+    }
+
+    private record StatementKey(Long customerId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record CachedReport<V>(V report, long loadedAt) {
+    }
+
+    /**
+     * Mapa LRU sincronizado. O relatório é calculado fora do lock; duas requisições simultâneas
+     * para o mesmo período podem calcular em dobro, o que é aceitável.
+     */
+    private final class LruCache<K, V> {
+
+        private final Map<K, CachedReport<V>> entries;
+        private final Counter hits;
+        private final Counter misses;
+
+        LruCache(int maxEntries, MeterRegistry meterRegistry, String report) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, CachedReport<V>> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+            this.hits = cacheCounter(meterRegistry, report, "hit");
+            this.misses = cacheCounter(meterRegistry, report, "miss");
+        }
+
+        V get(K key, Supplier<V> loader) {
+            long now = System.nanoTime();
+            synchronized (this) {
+                CachedReport<V> cached = entries.get(key);
+                if (cached != null && now - cached.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return cached.report();
+                }
+            }
+
+            misses.increment();
+            long loadedGeneration = generation.get();
+            V report = loader.get();
+            synchronized (this) {
+                if (generation.get() == loadedGeneration) {
+                    entries.put(key, new CachedReport<>(report, now));
+                }
+            }
+            return report;
+        }
+
+        synchronized void removeIf(Predicate<K> predicate) {
+            entries.keySet().removeIf(predicate);
+        }
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String report, String result) {
+        return Counter.builder("reicar.report.cache")
+            .description("Consultas ao cache de relatórios")
+            .tag("report", report)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.reicar.services;
+
+import com.reicar.entities.enums.ReportFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Armazenamento local dos arquivos gerados pelos jobs de relatório.
+ * O arquivo é escrito em um temporário e movido atomicamente, então um download nunca vê
+ * um arquivo pela metade. No banco fica apenas o nome do arquivo, relativo ao diretório base.
+ */
+@Service
+public class ReportFileStore {
+
+    private final Path root;
+
+    public ReportFileStore(@Value("${reicar.reports.storage-dir:./data/reports}") String storageDir) {
+        this.root = Path.of(storageDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de relatórios: " + root, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ArtifactWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Grava o arquivo do job e devolve o nome relativo a ser guardado no banco.
+     */
+    public String write(Long jobId, ReportFormat format, ArtifactWriter writer) throws IOException {
+        String fileName = "report-" + jobId + "." + format.getExtension();
+        Path temp = Files.createTempFile(root, "report-" + jobId + "-", ".part");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writer.writeTo(outputStream);
+            }
+            Files.move(temp, root.resolve(fileName), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return fileName;
+    }
+
+    public Path resolve(String fileName) {
+        Path path = root.resolve(fileName).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Arquivo fora do diretório de relatórios: " + fileName);
+        }
+        return path;
+    }
+
+    public long size(String fileName) throws IOException {
+        return Files.size(resolve(fileName));
+    }
+
+    public void delete(String fileName) throws IOException {
+        Files.deleteIfExists(resolve(fileName));
+    }
+}
@@ -0,0 +1,300 @@
+package com.reicar.services;
+
+import com.reicar.config.AfterCommit;
+import com.reicar.config.ExportMetrics;
+import com.reicar.config.Measured;
+import com.reicar.entities.ReportJob;
+import com.reicar.entities.enums.ReportFormat;
+import com.reicar.entities.enums.ReportJobStatus;
+import com.reicar.entities.enums.ReportType;
+import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.ReportJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração de relatórios em segundo plano. O pedido é gravado em report_jobs e processado
+ * por um pool pequeno e limitado, fora das threads de requisição; o arquivo fica no
+ * {@link ReportFileStore} até ser baixado ou expirar.
+ * <p>
+ * Cada job pendente fica com a instância que o enfileirou, que renova {@code heartbeat_at} a cada
+ * {@code reicar.reports.heartbeat-interval}. Um job cujo heartbeat passou de {@code reicar.reports.lease}
+ * é dado como perdido (a instância parou) e marcado como falho por qualquer instância; jobs de outras
+ * instâncias em execução não são afetados quando uma delas reinicia.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    static final String EXECUTOR_NAME = "report-jobs";
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final List<ReportJobStatus> PENDING = List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING);
+
+    private final ReportJobRepository reportJobRepository;
+    private final CustomerRepository customerRepository;
+    private final ReportService reportService;
+    private final PdfExportService pdfExportService;
+    private final ReportFileStore fileStore;
+    private final ExportMetrics exportMetrics;
+    private final ThreadPoolExecutor executor;
+    // Jobs enfileirados ou em execução nesta instância, cujo heartbeat ela renova
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @Value("${reicar.reports.retention:7d}")
+    private Duration retention;
+
+    @Value("${reicar.reports.lease:2m}")
+    private Duration lease;
+
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            CustomerRepository customerRepository,
+                            ReportService reportService,
+                            PdfExportService pdfExportService,
+                            ReportFileStore fileStore,
+                            ExportMetrics exportMetrics,
+                            MeterRegistry meterRegistry,
+                            @Value("${reicar.reports.workers:2}") int workers,
+                            @Value("${reicar.reports.queue-capacity:20}") int queueCapacity) {
+        this.reportJobRepository = reportJobRepository;
+        this.customerRepository = customerRepository;
+        this.reportService = reportService;
+        this.pdfExportService = pdfExportService;
+        this.fileStore = fileStore;
+        this.exportMetrics = exportMetrics;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(EXECUTOR_NAME + "-"));
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME);
+    }
+
+    /**
+     * Registra o pedido e o envia ao pool somente após o commit, para o worker encontrar a linha gravada.
+     */
+    @Transactional
+    @Measured
+    public ReportJob submit(ReportType reportType, ReportFormat format, Long customerId,
+                            LocalDate startDate, LocalDate endDate, String username) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior ou igual à data final");
+        }
+        if (reportType == ReportType.CUSTOMER_STATEMENT) {
+            if (customerId == null || !customerRepository.existsById(customerId)) {
+                throw new EntityNotFoundException("Cliente não encontrado: " + customerId);
+            }
+        } else {
+            customerId = null;
+        }
+
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+            .reportType(reportType)
+            .format(format)
+            .customerId(customerId)
+            .startDate(startDate)
+            .endDate(endDate)
+            .status(ReportJobStatus.QUEUED)
+            .requestedBy(username)
+            .createdAt(LocalDateTime.now())
+            .heartbeatAt(LocalDateTime.now())
+            .build());
+
+        Long jobId = job.getId();
+        AfterCommit.run(() -> enqueue(jobId));
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReportJob> findRecentByUser(String username) {
+        return reportJobRepository.findTop50ByRequestedByOrderByCreatedAtDesc(username);
+    }
+
+    @Transactional(readOnly = true)
+    public ReportJob findById(Long id) {
+        return reportJobRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Relatório não encontrado: " + id));
+    }
+
+    /**
+     * Renova o heartbeat dos jobs que esta instância mantém na fila ou em execução.
+     */
+    @Scheduled(fixedDelayString = "${reicar.reports.heartbeat-interval:30s}", initialDelayString = "${reicar.reports.heartbeat-interval:30s}")
+    public void renewHeartbeats() {
+        if (!activeJobs.isEmpty()) {
+            reportJobRepository.renewHeartbeat(List.copyOf(activeJobs), PENDING, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Jobs cuja instância parou (heartbeat vencido) não serão retomados. Roda na subida e periodicamente,
+     * para também encerrar os jobs de instâncias que não voltaram.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reicar.reports.heartbeat-interval:30s}", initialDelayString = "${reicar.reports.heartbeat-interval:30s}")
+    public void failAbandonedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int abandoned = reportJobRepository.failAbandoned(PENDING, now.minus(lease), now,
+            "Interrompido: o servidor que gerava o relatório parou. Solicite novamente.");
+        if (abandoned > 0) {
+            log.warn("{} relatório(s) em segundo plano interrompido(s) pela parada de uma instância", abandoned);
+        }
+    }
+
+    /**
+     * Remove jobs concluídos há mais de {@code reicar.reports.retention} e seus arquivos.
+     */
+    @Scheduled(cron = "${reicar.reports.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        List<ReportJob> expired = reportJobRepository.findByFinishedAtBefore(LocalDateTime.now().minus(retention));
+        for (ReportJob job : expired) {
+            if (job.getFilePath() != null) {
+                try {
+                    fileStore.delete(job.getFilePath());
+                } catch (IOException e) {
+                    log.warn("Não foi possível remover o arquivo do relatório {}: {}", job.getId(), e.getMessage());
+                    continue;
+                }
+            }
+            reportJobRepository.delete(job);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void enqueue(Long jobId) {
+        activeJobs.add(jobId);
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(jobId);
+            log.warn("Fila de relatórios cheia; job {} recusado", jobId);
+            reportJobRepository.findById(jobId).ifPresent(job ->
+                fail(job, "Fila de relatórios cheia. Tente novamente em alguns minutos."));
+        }
+    }
+
+    private void run(Long jobId) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != ReportJobStatus.QUEUED) {
+            return;
+        }
+
+        job.setStatus(ReportJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setHeartbeatAt(job.getStartedAt());
+        job = reportJobRepository.save(job);
+
+        try {
+            ProgressTracker progress = new ProgressTracker(jobId);
+            ReportJob running = job;
+            String fileName = fileStore.write(jobId, job.getFormat(), outputStream -> generate(running, outputStream, progress));
+
+            job.setFilePath(fileName);
+            job.setFileSize(fileStore.size(fileName));
+            job.setProgress(100);
+            job.setStatus(ReportJobStatus.DONE);
+            job.setFinishedAt(LocalDateTime.now());
+            reportJobRepository.save(job);
+
+            exportMetrics.record(metricName(job.getReportType()), job.getFormat().getExtension(), job.getFileSize());
+            log.info("Relatório {} ({}) gerado: {} bytes", jobId, job.getReportType(), job.getFileSize());
+        } catch (Exception e) {
+            log.error("Falha ao gerar o relatório {}", jobId, e);
+            fail(job, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void generate(ReportJob job, OutputStream outputStream, ReportProgress progress) throws IOException {
+        switch (job.getReportType()) {
+            case REVENUE -> {
+                if (job.getFormat() == ReportFormat.PDF) {
+                    pdfExportService.writeRevenueReportPdf(job.getStartDate(), job.getEndDate(), outputStream, progress);
+                } else {
+                    reportService.writeRevenueReportCsv(job.getStartDate(), job.getEndDate(), outputStream, progress);
+                }
+            }
+            case CUSTOMER_STATEMENT -> {
+                if (job.getFormat() == ReportFormat.PDF) {
+                    pdfExportService.writeCustomerStatementPdf(job.getCustomerId(), job.getStartDate(), job.getEndDate(), outputStream);
+                } else {
+                    outputStream.write(reportService.generateCustomerStatementCsv(job.getCustomerId(), job.getStartDate(), job.getEndDate())
+                        .getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private void fail(ReportJob job, String message) {
+        job.setStatus(ReportJobStatus.FAILED);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        reportJobRepository.save(job);
+    }
+
+    private static String metricName(ReportType reportType) {
+        return reportType == ReportType.REVENUE ? "revenue" : "customer-statement";
+    }
+
+    /**
+     * Converte linhas escritas em percentual e só grava no banco quando o percentual muda.
+     * Fica em no máximo 99% até o arquivo ser finalizado. A gravação é informativa: uma falha
+     * é registrada no log e a geração continua.
+     */
+    private final class ProgressTracker implements ReportProgress {
+
+        private final Long jobId;
+        private int lastPercent;
+
+        ProgressTracker(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void update(long rowsWritten, long totalRows) {
+            if (totalRows <= 0) {
+                return;
+            }
+            int percent = (int) Math.min(99, rowsWritten * 100 / totalRows);
+            if (percent > lastPercent) {
+                lastPercent = percent;
+                try {
+                    reportJobRepository.updateProgress(jobId, percent);
+                } catch (DataAccessException e) {
+                    log.warn("Não foi possível gravar o progresso do relatório {}: {}", jobId, e.getMessage());
+                }
+            }
+        }
+    }
+}
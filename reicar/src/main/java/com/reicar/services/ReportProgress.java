@@ -0,0 +1,13 @@
+package com.reicar.services;
+
+/**
+ * Recebe o andamento de uma exportação em streaming: linhas já escritas e total esperado
+ * (0 quando o total não é conhecido de antemão).
+ */
+@FunctionalInterface
+public interface ReportProgress {
+
+    ReportProgress NONE = (rowsWritten, totalRows) -> { };
+
+    void update(long rowsWritten, long totalRows);
+}
@@ -1,12 +1,15 @@
 package com.reicar.services;
 
+import com.reicar.config.Measured;
 import com.reicar.dtos.*;
 import com.reicar.entities.Customer;
-import com.reicar.entities.Invoice;
-import com.reicar.entities.Payment;
+import com.reicar.entities.Money;
 import com.reicar.entities.enums.InvoiceStatus;
 import com.reicar.entities.enums.PaymentMethod;
+import com.reicar.repositories.ArchivedInvoiceRepository;
+import com.reicar.repositories.ArchivedPaymentRepository;
 import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.DailyRevenueRollupRepository;
 import com.reicar.repositories.InvoiceRepository;
 import com.reicar.repositories.PaymentRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -14,34 +17,55 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Relatórios financeiros. Faturas e pagamentos de anos arquivados ({@link FinancialArchiveService}) entram
+ * nos relatórios cujo período os alcança; os demais não consultam as tabelas de arquivo.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ReportService {
 
+    private static final int PROGRESS_INTERVAL_ROWS = 500;
+    private static final Comparator<InvoiceDTO> INVOICE_ORDER =
+        Comparator.comparing(InvoiceDTO::issueDate).thenComparing(InvoiceDTO::id);
+    private static final Comparator<PaymentDTO> PAYMENT_ORDER =
+        Comparator.comparing(PaymentDTO::paymentDate).thenComparing(PaymentDTO::id);
+
     private final InvoiceRepository invoiceRepository;
     private final PaymentRepository paymentRepository;
     private final CustomerRepository customerRepository;
+    private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+    private final ArchivedInvoiceRepository archivedInvoiceRepository;
+    private final ArchivedPaymentRepository archivedPaymentRepository;
+    private final FinancialArchiveCatalog financialArchiveCatalog;
+    private final KpiCounters kpiCounters;
 
+    // Lido dos contadores em memória (KpiCounters), sem consultas por acesso ao dashboard
     public DashboardMetricsDTO getDashboardMetrics() {
         LocalDate today = LocalDate.now();
 
-        BigDecimal dailyRevenue = getRevenueForDate(today);
-        BigDecimal weeklyRevenue = getRevenueForDateRange(today.minusDays(6), today);
-        BigDecimal monthlyRevenue = getRevenueForDateRange(today.withDayOfMonth(1), today);
+        BigDecimal dailyRevenue = kpiCounters.revenueBetween(today, today);
+        BigDecimal weeklyRevenue = kpiCounters.revenueBetween(today.minusDays(6), today);
+        BigDecimal monthlyRevenue = kpiCounters.revenueBetween(today.withDayOfMonth(1), today);
 
-        int unpaidInvoiceCount = invoiceRepository.countByStatus(InvoiceStatus.UNPAID);
-        int partialInvoiceCount = invoiceRepository.countByStatus(InvoiceStatus.PARTIAL);
+        int unpaidInvoiceCount = (int) kpiCounters.invoiceCount(InvoiceStatus.UNPAID);
+        int partialInvoiceCount = (int) kpiCounters.invoiceCount(InvoiceStatus.PARTIAL);
 
-        BigDecimal unpaidInvoiceTotal = invoiceRepository.sumTotalValueByStatus(InvoiceStatus.UNPAID);
-        BigDecimal partialOutstandingTotal = invoiceRepository.sumPartialOutstandingBalance();
-        BigDecimal totalOutstanding = invoiceRepository.sumOutstandingBalance();
+        BigDecimal unpaidInvoiceTotal = kpiCounters.invoiceTotal(InvoiceStatus.UNPAID);
+        BigDecimal partialOutstandingTotal = kpiCounters.invoiceOutstanding(InvoiceStatus.PARTIAL);
+        BigDecimal totalOutstanding = kpiCounters.invoiceOutstanding(InvoiceStatus.UNPAID)
+            .add(partialOutstandingTotal);
 
         return new DashboardMetricsDTO(
             dailyRevenue,
@@ -55,23 +79,13 @@ public class ReportService {
         );
     }
 
-    private BigDecimal getRevenueForDate(LocalDate date) {
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.atTime(23, 59, 59);
-        return paymentRepository.sumPaymentsBetweenDates(start, end);
-    }
-
+    // Receitas lidas da tabela de consolidação diária (daily_revenue_rollup), não de payments
     private BigDecimal getRevenueForDateRange(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-        return paymentRepository.sumPaymentsBetweenDates(start, end);
+        return dailyRevenueRollupRepository.sumBetweenDates(startDate, endDate);
     }
 
     public Map<PaymentMethod, BigDecimal> getRevenueByPaymentMethod(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-
-        List<Object[]> results = paymentRepository.sumByPaymentMethodBetweenDates(start, end);
+        List<Object[]> results = dailyRevenueRollupRepository.sumByPaymentMethodBetweenDates(startDate, endDate);
 
         Map<PaymentMethod, BigDecimal> revenueByMethod = new EnumMap<>(PaymentMethod.class);
         for (PaymentMethod method : PaymentMethod.values()) {
@@ -88,10 +102,7 @@ public class ReportService {
     }
 
     public List<DailyRevenueDTO> getDailyRevenue(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-
-        List<Object[]> results = paymentRepository.sumDailyRevenueBetweenDates(start, end);
+        List<Object[]> results = dailyRevenueRollupRepository.sumDailyBetweenDates(startDate, endDate);
 
         Map<LocalDate, BigDecimal> revenueByDate = new LinkedHashMap<>();
 
@@ -118,90 +129,220 @@ public class ReportService {
         return getDailyRevenue(startDate, endDate);
     }
 
+    @Measured
     public RevenueReportDTO generateRevenueReport(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-
-        List<Invoice> invoices = invoiceRepository.findByIssueDateBetween(startDate, endDate);
+        List<InvoiceDTO> invoiceDTOs = new ArrayList<>();
+        try (Stream<InvoiceDTO> archived = archivedInvoices(startDate, endDate)) {
+            archived.forEach(invoiceDTOs::add);
+        }
+        invoiceRepository.findByIssueDateBetween(startDate, endDate).stream()
+            .map(InvoiceDTO::from)
+            .forEach(invoiceDTOs::add);
+
+        // Totais e contagens em uma única passada, somando centavos
+        Money.Sum totalInvoiced = new Money.Sum();
+        Money.Sum outstandingBalance = new Money.Sum();
+        int paidInvoiceCount = 0;
+        int unpaidInvoiceCount = 0;
+        int partialInvoiceCount = 0;
+
+        for (InvoiceDTO invoice : invoiceDTOs) {
+            totalInvoiced.add(invoice.totalValue());
+            switch (invoice.status()) {
+                case PAID -> paidInvoiceCount++;
+                case UNPAID -> {
+                    unpaidInvoiceCount++;
+                    outstandingBalance.addCents(remainingCents(invoice));
+                }
+                case PARTIAL -> {
+                    partialInvoiceCount++;
+                    outstandingBalance.addCents(remainingCents(invoice));
+                }
+                default -> { }
+            }
+        }
 
-        BigDecimal totalInvoiced = invoices.stream()
-            .map(Invoice::getTotalValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalReceived = getRevenueForDateRange(startDate, endDate);
+        int invoiceCount = invoiceDTOs.size();
 
-        BigDecimal totalReceived = paymentRepository.sumPaymentsBetweenDates(start, end);
+        Map<PaymentMethod, BigDecimal> revenueByMethod = getRevenueByPaymentMethod(startDate, endDate);
 
-        BigDecimal outstandingBalance = invoices.stream()
-            .filter(i -> i.getStatus() == InvoiceStatus.UNPAID || i.getStatus() == InvoiceStatus.PARTIAL)
-            .map(Invoice::getRemainingBalance)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new RevenueReportDTO(
+            startDate,
+            endDate,
+            LocalDate.now(),
+            totalInvoiced.toBigDecimal(),
+            totalReceived,
+            outstandingBalance.toBigDecimal(),
+            invoiceCount,
+            paidInvoiceCount,
+            unpaidInvoiceCount,
+            partialInvoiceCount,
+            revenueByMethod,
+            invoiceDTOs
+        );
+    }
 
-        int invoiceCount = invoices.size();
-        int paidInvoiceCount = (int) invoices.stream()
-            .filter(i -> i.getStatus() == InvoiceStatus.PAID)
-            .count();
-        int unpaidInvoiceCount = (int) invoices.stream()
-            .filter(i -> i.getStatus() == InvoiceStatus.UNPAID)
-            .count();
-        int partialInvoiceCount = (int) invoices.stream()
-            .filter(i -> i.getStatus() == InvoiceStatus.PARTIAL)
-            .count();
+    /**
+     * Resumo do relatório de receitas calculado só com agregações no banco.
+     * A lista de faturas vem vazia: as linhas são lidas em streaming por quem exporta.
+     */
+    @Measured
+    public RevenueReportDTO generateRevenueReportSummary(LocalDate startDate, LocalDate endDate) {
+        Money.Sum totalInvoiced = new Money.Sum();
+        Money.Sum outstandingBalance = new Money.Sum();
+        int invoiceCount = 0;
+        int paidInvoiceCount = 0;
+        int unpaidInvoiceCount = 0;
+        int partialInvoiceCount = 0;
+
+        List<Object[]> results = new ArrayList<>(invoiceRepository.summarizeByStatusBetweenDates(startDate, endDate));
+        if (financialArchiveCatalog.reaches(startDate)) {
+            results.addAll(archivedInvoiceRepository.summarizeByStatusBetweenDates(startDate, endDate));
+        }
 
-        Map<PaymentMethod, BigDecimal> revenueByMethod = getRevenueByPaymentMethod(startDate, endDate);
+        for (Object[] result : results) {
+            InvoiceStatus status = (InvoiceStatus) result[0];
+            int count = ((Number) result[1]).intValue();
+            BigDecimal total = (BigDecimal) result[2];
+            BigDecimal remaining = (BigDecimal) result[3];
+
+            invoiceCount += count;
+            totalInvoiced.add(total);
+
+            switch (status) {
+                case PAID -> paidInvoiceCount += count;
+                case UNPAID -> {
+                    unpaidInvoiceCount += count;
+                    outstandingBalance.add(remaining);
+                }
+                case PARTIAL -> {
+                    partialInvoiceCount += count;
+                    outstandingBalance.add(remaining);
+                }
+                default -> { }
+            }
+        }
 
-        List<InvoiceDTO> invoiceDTOs = invoices.stream()
-            .map(InvoiceDTO::from)
-            .toList();
+        BigDecimal totalReceived = getRevenueForDateRange(startDate, endDate);
 
         return new RevenueReportDTO(
             startDate,
             endDate,
             LocalDate.now(),
-            totalInvoiced,
+            totalInvoiced.toBigDecimal(),
             totalReceived,
-            outstandingBalance,
+            outstandingBalance.toBigDecimal(),
             invoiceCount,
             paidInvoiceCount,
             unpaidInvoiceCount,
             partialInvoiceCount,
-            revenueByMethod,
-            invoiceDTOs
+            getRevenueByPaymentMethod(startDate, endDate),
+            List.of()
         );
     }
 
-    public CustomerStatementDTO generateCustomerStatement(Long customerId, LocalDate startDate, LocalDate endDate) {
-        Customer customer = customerRepository.findById(customerId)
-            .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado: " + customerId));
+    /**
+     * Percorre as faturas do relatório de receitas em streaming, sem materializar a lista.
+     */
+    public void forEachRevenueReportInvoice(LocalDate startDate, LocalDate endDate, Consumer<InvoiceDTO> action) {
+        try (Stream<InvoiceDTO> archived = archivedInvoices(startDate, endDate);
+             Stream<InvoiceDTO> invoices = invoiceRepository.streamByIssueDateBetween(startDate, endDate)) {
+            mergeOrdered(archived.iterator(), invoices.iterator(), INVOICE_ORDER).forEachRemaining(action);
+        }
+    }
 
-        List<Invoice> invoices = invoiceRepository.findByCustomerId(customerId).stream()
-            .filter(i -> !i.getIssueDate().isBefore(startDate) && !i.getIssueDate().isAfter(endDate))
-            .toList();
+    /**
+     * Cabeçalho e totais do extrato calculados no banco, com listas vazias.
+     * Faturas, pagamentos e movimentação são lidos em streaming por {@link #forEachCustomerStatementInvoice},
+     * {@link #forEachCustomerStatementPayment} e {@link #forEachCustomerStatementEntry}.
+     */
+    @Measured
+    public CustomerStatementDTO generateCustomerStatementSummary(Long customerId, LocalDate startDate, LocalDate endDate) {
+        return buildCustomerStatement(customerId, startDate, endDate, false);
+    }
 
+    public void forEachCustomerStatementInvoice(Long customerId, LocalDate startDate, LocalDate endDate, Consumer<InvoiceDTO> action) {
+        try (Stream<InvoiceDTO> archived = financialArchiveCatalog.reaches(startDate)
+                 ? archivedInvoiceRepository.streamByCustomerIdAndIssueDateBetween(customerId, startDate, endDate)
+                 : Stream.empty();
+             Stream<InvoiceDTO> invoices = invoiceRepository.streamByCustomerIdAndIssueDateBetween(customerId, startDate, endDate)) {
+            mergeOrdered(archived.iterator(), invoices.iterator(), INVOICE_ORDER).forEachRemaining(action);
+        }
+    }
+
+    public void forEachCustomerStatementPayment(Long customerId, LocalDate startDate, LocalDate endDate, Consumer<PaymentDTO> action) {
         LocalDateTime start = startDate.atStartOfDay();
         LocalDateTime end = endDate.atTime(23, 59, 59);
 
-        List<Payment> payments = invoices.stream()
-            .flatMap(i -> i.getPayments().stream())
-            .filter(p -> !p.getPaymentDate().isBefore(start) && !p.getPaymentDate().isAfter(end))
-            .sorted(Comparator.comparing(Payment::getPaymentDate))
-            .toList();
+        try (Stream<PaymentDTO> archived = financialArchiveCatalog.reaches(startDate)
+                 ? archivedPaymentRepository.streamForCustomerStatement(customerId, start, end)
+                 : Stream.empty();
+             Stream<PaymentDTO> payments = paymentRepository.streamForCustomerStatement(customerId, start, end)) {
+            mergeOrdered(archived.iterator(), payments.iterator(), PAYMENT_ORDER).forEachRemaining(action);
+        }
+    }
+
+    /**
+     * Percorre a movimentação do período em ordem cronológica; o saldo acumulado de cada linha
+     * já vem calculado do banco a partir do saldo anterior informado.
+     */
+    public void forEachCustomerStatementEntry(Long customerId, LocalDate startDate, LocalDate endDate, BigDecimal openingBalance,
+                                              Consumer<CustomerStatementEntryDTO> action) {
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.atTime(23, 59, 59);
 
-        BigDecimal totalInvoiced = invoices.stream()
-            .map(Invoice::getTotalValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        try (Stream<Object[]> rows = invoiceRepository.streamCustomerLedger(
+                 customerId, startDate, endDate, start, end, openingBalance, financialArchiveCatalog.reaches(startDate))) {
+            rows.map(ReportService::toStatementEntry).forEach(action);
+        }
+    }
 
-        BigDecimal totalPaid = payments.stream()
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Dados dos quais o extrato do cliente até {@code endDate} depende (cadastro e resumo das faturas e
+     * pagamentos); enquanto não mudam, o extrato de qualquer período que termine nessa data é o mesmo.
+     */
+    public List<Object> customerStatementFingerprint(Long customerId, LocalDate endDate) {
+        Customer customer = customerRepository.findById(customerId)
+            .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado: " + customerId));
 
-        BigDecimal balance = totalInvoiced.subtract(totalPaid);
+        List<Object> fingerprint = new ArrayList<>(Arrays.asList(customer.getName(), customer.getPhone(), customer.getCity(), customer.getState()));
+        fingerprint.addAll(Arrays.asList(invoiceRepository.customerStatementFingerprint(customerId, endDate, endDate.atTime(23, 59, 59)).get(0)));
+        return fingerprint;
+    }
 
-        List<InvoiceDTO> invoiceDTOs = invoices.stream()
-            .map(InvoiceDTO::from)
-            .toList();
+    /**
+     * Extrato completo para a tela e o CSV: apenas as faturas e pagamentos do período são lidos,
+     * por faixa de data, sem carregar o histórico inteiro do cliente.
+     */
+    @Measured
+    public CustomerStatementDTO generateCustomerStatement(Long customerId, LocalDate startDate, LocalDate endDate) {
+        return buildCustomerStatement(customerId, startDate, endDate, true);
+    }
 
-        List<PaymentDTO> paymentDTOs = payments.stream()
-            .map(PaymentDTO::from)
-            .toList();
+    private CustomerStatementDTO buildCustomerStatement(Long customerId, LocalDate startDate, LocalDate endDate, boolean withLines) {
+        Customer customer = customerRepository.findById(customerId)
+            .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado: " + customerId));
+
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.atTime(23, 59, 59);
+
+        BigDecimal openingBalance = invoiceRepository.customerBalanceBefore(customerId, startDate, start, !financialArchiveCatalog.isEmpty());
+        BigDecimal totalInvoiced = invoiceRepository.sumBilledByCustomerIdAndIssueDateBetween(customerId, startDate, endDate);
+        BigDecimal totalPaid = paymentRepository.sumForCustomerStatement(customerId, start, end);
+        if (financialArchiveCatalog.reaches(startDate)) {
+            totalInvoiced = totalInvoiced.add(archivedInvoiceRepository.sumBilledByCustomerIdAndIssueDateBetween(customerId, startDate, endDate));
+            totalPaid = totalPaid.add(archivedPaymentRepository.sumForCustomerStatement(customerId, start, end));
+        }
+
+        List<InvoiceDTO> invoices = new ArrayList<>();
+        List<PaymentDTO> payments = new ArrayList<>();
+        List<CustomerStatementEntryDTO> entries = new ArrayList<>();
+        if (withLines) {
+            forEachCustomerStatementInvoice(customerId, startDate, endDate, invoices::add);
+            forEachCustomerStatementPayment(customerId, startDate, endDate, payments::add);
+            forEachCustomerStatementEntry(customerId, startDate, endDate, openingBalance, entries::add);
+        }
 
         return new CustomerStatementDTO(
             customer.getId(),
@@ -212,50 +353,172 @@ public class ReportService {
             startDate,
             endDate,
             LocalDate.now(),
-            invoiceDTOs,
-            paymentDTOs,
+            invoices,
+            payments,
+            entries,
+            openingBalance,
             totalInvoiced,
             totalPaid,
-            balance
+            openingBalance.add(totalInvoiced).subtract(totalPaid)
+        );
+    }
+
+    private static long remainingCents(InvoiceDTO invoice) {
+        return Money.toCents(invoice.totalValue()) - Money.toCents(invoice.paidAmount());
+    }
+
+    private Stream<InvoiceDTO> archivedInvoices(LocalDate startDate, LocalDate endDate) {
+        return financialArchiveCatalog.reaches(startDate)
+            ? archivedInvoiceRepository.streamByIssueDateBetween(startDate, endDate)
+            : Stream.empty();
+    }
+
+    // Intercala duas sequências já ordenadas (arquivo e tabelas principais) mantendo a ordem
+    private static <T> Iterator<T> mergeOrdered(Iterator<T> first, Iterator<T> second, Comparator<? super T> order) {
+        return new Iterator<>() {
+            private T nextFirst = first.hasNext() ? first.next() : null;
+            private T nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T result;
+                if (nextSecond == null || (nextFirst != null && order.compare(nextFirst, nextSecond) <= 0)) {
+                    result = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    result = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+
+    private static CustomerStatementEntryDTO toStatementEntry(Object[] row) {
+        String entryType = (String) row[1];
+        String detail = (String) row[4];
+        String description = CustomerStatementEntryDTO.INVOICE.equals(entryType)
+            ? (InvoiceStatus.CANCELLED.name().equals(detail) ? "Fatura cancelada" : "Fatura emitida")
+            : "Pagamento - " + PaymentMethod.valueOf(detail).getDisplayName();
+
+        return new CustomerStatementEntryDTO(
+            toLocalDateTime(row[0]),
+            entryType,
+            ((Number) row[2]).longValue(),
+            (String) row[3],
+            description,
+            toBigDecimal(row[5]),
+            toBigDecimal(row[6]),
+            toBigDecimal(row[7])
         );
     }
 
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
     public String generateRevenueReportCsv(LocalDate startDate, LocalDate endDate) {
         RevenueReportDTO report = generateRevenueReport(startDate, endDate);
 
         StringBuilder csv = new StringBuilder();
+        try {
+            appendRevenueCsvSummary(csv, report);
+            for (InvoiceDTO invoice : report.invoices()) {
+                appendRevenueCsvRow(csv, invoice);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return csv.toString();
+    }
+
+    /**
+     * Escreve o CSV do relatório de receitas direto no stream de saída, lendo as faturas
+     * do banco em streaming. O consumo de memória não depende do tamanho do período.
+     */
+    public void writeRevenueReportCsv(LocalDate startDate, LocalDate endDate, OutputStream outputStream) throws IOException {
+        writeRevenueReportCsv(startDate, endDate, outputStream, ReportProgress.NONE);
+    }
+
+    /**
+     * Igual a {@link #writeRevenueReportCsv(LocalDate, LocalDate, OutputStream)}, informando o andamento
+     * a cada {@value #PROGRESS_INTERVAL_ROWS} linhas.
+     */
+    @Measured
+    public void writeRevenueReportCsv(LocalDate startDate, LocalDate endDate, OutputStream outputStream,
+                                      ReportProgress progress) throws IOException {
+        RevenueReportDTO summary = generateRevenueReportSummary(startDate, endDate);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        appendRevenueCsvSummary(writer, summary);
+
+        long rows = 0;
+        try (Stream<InvoiceDTO> archived = archivedInvoices(startDate, endDate);
+             Stream<InvoiceDTO> invoices = invoiceRepository.streamByIssueDateBetween(startDate, endDate)) {
+            Iterator<InvoiceDTO> iterator = mergeOrdered(archived.iterator(), invoices.iterator(), INVOICE_ORDER);
+            while (iterator.hasNext()) {
+                appendRevenueCsvRow(writer, iterator.next());
+                if (++rows % PROGRESS_INTERVAL_ROWS == 0) {
+                    progress.update(rows, summary.invoiceCount());
+                }
+            }
+        }
+
+        writer.flush();
+        progress.update(rows, summary.invoiceCount());
+    }
+
+    private void appendRevenueCsvSummary(Appendable csv, RevenueReportDTO report) throws IOException {
         csv.append("Relatório de Receitas\n");
-        csv.append("Período:;").append(startDate).append(" a ").append(endDate).append("\n");
-        csv.append("Gerado em:;").append(report.generatedAt()).append("\n\n");
+        csv.append("Período:;").append(String.valueOf(report.startDate())).append(" a ").append(String.valueOf(report.endDate())).append("\n");
+        csv.append("Gerado em:;").append(String.valueOf(report.generatedAt())).append("\n\n");
 
         csv.append("Resumo\n");
-        csv.append("Total Faturado;R$ ").append(String.format("%.2f", report.totalInvoiced())).append("\n");
-        csv.append("Total Recebido;R$ ").append(String.format("%.2f", report.totalReceived())).append("\n");
-        csv.append("Saldo Pendente;R$ ").append(String.format("%.2f", report.outstandingBalance())).append("\n");
-        csv.append("Total de Faturas;").append(report.invoiceCount()).append("\n");
-        csv.append("Faturas Pagas;").append(report.paidInvoiceCount()).append("\n");
-        csv.append("Faturas Pendentes;").append(report.unpaidInvoiceCount()).append("\n");
-        csv.append("Faturas Parciais;").append(report.partialInvoiceCount()).append("\n\n");
+        appendAmountLine(csv, "Total Faturado", report.totalInvoiced());
+        appendAmountLine(csv, "Total Recebido", report.totalReceived());
+        appendAmountLine(csv, "Saldo Pendente", report.outstandingBalance());
+        csv.append("Total de Faturas;").append(String.valueOf(report.invoiceCount())).append("\n");
+        csv.append("Faturas Pagas;").append(String.valueOf(report.paidInvoiceCount())).append("\n");
+        csv.append("Faturas Pendentes;").append(String.valueOf(report.unpaidInvoiceCount())).append("\n");
+        csv.append("Faturas Parciais;").append(String.valueOf(report.partialInvoiceCount())).append("\n\n");
 
         csv.append("Receitas por Método de Pagamento\n");
         for (Map.Entry<PaymentMethod, BigDecimal> entry : report.revenueByMethod().entrySet()) {
-            csv.append(entry.getKey().getDisplayName()).append(";R$ ")
-               .append(String.format("%.2f", entry.getValue())).append("\n");
+            appendAmountLine(csv, entry.getKey().getDisplayName(), entry.getValue());
         }
         csv.append("\n");
 
         csv.append("Faturas\n");
         csv.append("Número;Cliente;Data Emissão;Valor Total;Valor Pago;Status\n");
-        for (InvoiceDTO invoice : report.invoices()) {
-            csv.append(invoice.invoiceNumber()).append(";")
-               .append(invoice.customerName()).append(";")
-               .append(invoice.issueDate()).append(";")
-               .append(String.format("%.2f", invoice.totalValue())).append(";")
-               .append(String.format("%.2f", invoice.paidAmount())).append(";")
-               .append(invoice.status()).append("\n");
-        }
+    }
 
-        return csv.toString();
+    private void appendRevenueCsvRow(Appendable csv, InvoiceDTO invoice) throws IOException {
+        csv.append(invoice.invoiceNumber()).append(";")
+           .append(invoice.customerName()).append(";")
+           .append(String.valueOf(invoice.issueDate())).append(";");
+        Money.appendPlain(csv, invoice.totalValue());
+        csv.append(";");
+        Money.appendPlain(csv, invoice.paidAmount());
+        csv.append(";").append(String.valueOf(invoice.status())).append("\n");
+    }
+
+    private void appendAmountLine(Appendable csv, String label, BigDecimal value) throws IOException {
+        csv.append(label).append(";R$ ");
+        Money.appendPlain(csv, value);
+        csv.append("\n");
     }
 
     public String generateCustomerStatementCsv(Long customerId, LocalDate startDate, LocalDate endDate) {
@@ -270,18 +533,40 @@ public class ReportService {
         csv.append("Gerado em;").append(statement.generatedAt()).append("\n\n");
 
         csv.append("Resumo\n");
-        csv.append("Total Faturado;R$ ").append(String.format("%.2f", statement.totalInvoiced())).append("\n");
-        csv.append("Total Pago;R$ ").append(String.format("%.2f", statement.totalPaid())).append("\n");
-        csv.append("Saldo;R$ ").append(String.format("%.2f", statement.balance())).append("\n\n");
+        csv.append("Saldo Anterior;R$ ");
+        Money.appendPlain(csv, statement.openingBalance());
+        csv.append("\nTotal Faturado;R$ ");
+        Money.appendPlain(csv, statement.totalInvoiced());
+        csv.append("\nTotal Pago;R$ ");
+        Money.appendPlain(csv, statement.totalPaid());
+        csv.append("\nSaldo;R$ ");
+        Money.appendPlain(csv, statement.balance());
+        csv.append("\n\n");
+
+        csv.append("Movimentação\n");
+        csv.append("Data;Fatura;Descrição;Débito;Crédito;Saldo\n");
+        for (CustomerStatementEntryDTO entry : statement.entries()) {
+            csv.append(entry.isInvoice() ? entry.entryDate().toLocalDate() : entry.entryDate()).append(";")
+               .append(entry.invoiceNumber()).append(";")
+               .append(entry.description()).append(";");
+            Money.appendPlain(csv, entry.debit());
+            csv.append(";");
+            Money.appendPlain(csv, entry.credit());
+            csv.append(";");
+            Money.appendPlain(csv, entry.runningBalance());
+            csv.append("\n");
+        }
+        csv.append("\n");
 
         csv.append("Faturas\n");
         csv.append("Número;Data Emissão;Valor Total;Valor Pago;Status\n");
         for (InvoiceDTO invoice : statement.invoices()) {
             csv.append(invoice.invoiceNumber()).append(";")
-               .append(invoice.issueDate()).append(";")
-               .append(String.format("%.2f", invoice.totalValue())).append(";")
-               .append(String.format("%.2f", invoice.paidAmount())).append(";")
-               .append(invoice.status()).append("\n");
+               .append(invoice.issueDate()).append(";");
+            Money.appendPlain(csv, invoice.totalValue());
+            csv.append(";");
+            Money.appendPlain(csv, invoice.paidAmount());
+            csv.append(";").append(invoice.status()).append("\n");
         }
         csv.append("\n");
 
@@ -289,9 +574,9 @@ public class ReportService {
         csv.append("Data;Fatura;Valor;Método\n");
         for (PaymentDTO payment : statement.payments()) {
             csv.append(payment.paymentDate()).append(";")
-               .append(payment.invoiceNumber()).append(";")
-               .append(String.format("%.2f", payment.amount())).append(";")
-               .append(payment.paymentMethod()).append("\n");
+               .append(payment.invoiceNumber()).append(";");
+            Money.appendPlain(csv, payment.amount());
+            csv.append(";").append(payment.paymentMethod()).append("\n");
         }
 
         return csv.toString();
@@ -0,0 +1,94 @@
+package com.reicar.services;
+
+import com.reicar.config.Measured;
+import com.reicar.dtos.SearchMatchesDTO;
+import com.reicar.entities.Customer;
+import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Busca textual sobre os índices FULLTEXT (ngram) de clientes e faturas.
+ * A comparação segue a collation accent-insensitive da coluna, então acentos são ignorados.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SearchService {
+
+    static final int MAX_CUSTOMER_RESULTS = 200;
+    static final int MAX_MATCHED_IDS = 1000;
+    // Igual ao ngram_token_size padrão do MySQL: termos menores não geram tokens
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final CustomerRepository customerRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    @Measured
+    public List<Customer> searchCustomers(String search) {
+        if (search == null || search.isBlank()) {
+            return List.of();
+        }
+        String terms = toBooleanQuery(search);
+        if (terms.isEmpty()) {
+            // Algum termo de um caractere: o índice não o conhece, a busca volta a ser por trecho
+            return customerRepository.findByNameContainingIgnoreCaseOrderByName(search.strip(), PageRequest.ofSize(MAX_CUSTOMER_RESULTS));
+        }
+        return customerRepository.searchByName(terms, MAX_CUSTOMER_RESULTS);
+    }
+
+    /**
+     * Resolve o texto buscado em ids de clientes (por nome) e de faturas (por número),
+     * para serem usados como filtro da listagem de faturas. A listagem precisa ser exata:
+     * se algum termo do texto não é indexável ou se algum lado passa de {@value #MAX_MATCHED_IDS} ids,
+     * o resultado pede o filtro por trecho (LIKE) em vez de uma lista cortada.
+     */
+    @Measured
+    public SearchMatchesDTO matchInvoices(String search) {
+        if (search == null || search.isBlank()) {
+            return SearchMatchesDTO.empty();
+        }
+        String terms = toBooleanQuery(search);
+        if (terms.isEmpty()) {
+            return SearchMatchesDTO.byText(search.strip());
+        }
+
+        List<Long> customerIds = customerRepository.searchIdsByName(terms, MAX_MATCHED_IDS + 1);
+        if (customerIds.size() > MAX_MATCHED_IDS) {
+            return SearchMatchesDTO.byText(search.strip());
+        }
+        List<Long> invoiceIds = invoiceRepository.searchIdsByInvoiceNumber(terms, MAX_MATCHED_IDS + 1);
+        if (invoiceIds.size() > MAX_MATCHED_IDS) {
+            return SearchMatchesDTO.byText(search.strip());
+        }
+        return SearchMatchesDTO.of(customerIds, invoiceIds);
+    }
+
+    /**
+     * Converte o texto digitado em uma consulta BOOLEAN MODE exigindo todos os termos.
+     * Operadores do MySQL (+ - * " etc.) são descartados para que não alterem a busca.
+     * Vazio quando algum termo é menor que o token do índice: sem ele a busca seria mais ampla
+     * que a digitada ("Cliente 1" acharia todo "Cliente N"), então quem chama busca por trecho.
+     */
+    static String toBooleanQuery(String search) {
+        if (search == null) {
+            return "";
+        }
+        List<String> terms = Arrays.stream(search.split("[^\\p{L}\\p{N}]+"))
+            .filter(term -> !term.isEmpty())
+            .toList();
+        if (terms.stream().anyMatch(term -> term.length() < MIN_TERM_LENGTH)) {
+            return "";
+        }
+        return terms.stream()
+            .map(term -> "+" + term)
+            .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,273 @@
+package com.reicar.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.reicar.dtos.ServiceItemDTO;
+import com.reicar.dtos.ServiceOrderImportDTO;
+import com.reicar.entities.enums.ImportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Lê o arquivo de importação de OS em streaming, entregando uma OS por vez.
+ * <ul>
+ *   <li>NDJSON: um objeto JSON por linha, com os campos de {@link ServiceOrderImportDTO} e os itens em {@code items}.</li>
+ *   <li>CSV (separador {@code ,} ou {@code ;}, com cabeçalho): uma linha por item; linhas seguidas com o mesmo
+ *   {@code order_number} formam uma OS, e os dados da OS vêm da primeira delas.</li>
+ * </ul>
+ * Erros de formato de um registro não interrompem a leitura: o registro é entregue com a mensagem de erro.
+ */
+@Component
+public class ServiceOrderImportReader {
+
+    public static final List<String> CSV_COLUMNS = List.of(
+        "order_number", "type", "entry_date", "status", "customer_name", "customer_phone", "customer_city",
+        "customer_state", "service_value", "technical_diagnosis", "vehicle_km", "tire_position",
+        "item_description", "item_quantity", "item_unit_price");
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("type", "entry_date", "customer_name");
+    private static final DateTimeFormatter BRAZILIAN_DATE = DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private final ObjectReader jsonReader;
+
+    public ServiceOrderImportReader(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(ServiceOrderImportDTO.class);
+    }
+
+    /**
+     * Registro lido: a OS ou, se a linha for inválida, a mensagem de erro.
+     * @param line linha do arquivo onde o registro começa
+     */
+    public record ImportRecord(long line, ServiceOrderImportDTO order, String error) {
+
+        static ImportRecord failed(long line, String error) {
+            return new ImportRecord(line, null, error);
+        }
+
+        public String orderNumber() {
+            return order != null ? order.orderNumber() : null;
+        }
+    }
+
+    public void read(BufferedReader input, ImportFormat format, Consumer<ImportRecord> consumer) throws IOException {
+        if (format == ImportFormat.NDJSON) {
+            readNdjson(input, consumer);
+        } else {
+            readCsv(input, consumer);
+        }
+    }
+
+    private void readNdjson(BufferedReader input, Consumer<ImportRecord> consumer) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                consumer.accept(new ImportRecord(lineNumber, jsonReader.readValue(line), null));
+            } catch (JsonProcessingException e) {
+                consumer.accept(ImportRecord.failed(lineNumber, "JSON inválido: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader input, Consumer<ImportRecord> consumer) throws IOException {
+        String header = input.readLine();
+        if (header == null) {
+            return;
+        }
+        header = header.replace("\uFEFF", "");
+        char delimiter = count(header, ';') > count(header, ',') ? ';' : ',';
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> headerFields = splitCsvLine(header, delimiter);
+        for (int i = 0; i < headerFields.size(); i++) {
+            columns.put(headerFields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no CSV: " + required);
+            }
+        }
+
+        CsvOrder current = null;
+        long lineNumber = 1;
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            CsvRow row = new CsvRow(splitCsvLine(line, delimiter), columns);
+            String orderNumber = row.get("order_number");
+
+            if (current == null || orderNumber == null || !orderNumber.equals(current.orderNumber)) {
+                if (current != null) {
+                    consumer.accept(current.toRecord());
+                }
+                current = new CsvOrder(lineNumber, orderNumber);
+                current.readHeader(row);
+            }
+            current.readItem(row, lineNumber);
+        }
+        if (current != null) {
+            consumer.accept(current.toRecord());
+        }
+    }
+
+    /**
+     * Divide uma linha CSV respeitando aspas ({@code ""} dentro de aspas é uma aspa).
+     * Campos com quebra de linha não são suportados.
+     */
+    static List<String> splitCsvLine(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int count(String value, char c) {
+        return (int) value.chars().filter(ch -> ch == c).count();
+    }
+
+    private record CsvRow(List<String> fields, Map<String, Integer> columns) {
+
+        String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    // Acumula as linhas de uma OS do CSV; o primeiro erro invalida a OS inteira
+    private static final class CsvOrder {
+
+        private final long line;
+        private final String orderNumber;
+        private final List<ServiceItemDTO> items = new ArrayList<>();
+        private ServiceOrderImportDTO header;
+        private String error;
+
+        CsvOrder(long line, String orderNumber) {
+            this.line = line;
+            this.orderNumber = orderNumber;
+        }
+
+        void readHeader(CsvRow row) {
+            try {
+                header = new ServiceOrderImportDTO(
+                    orderNumber,
+                    row.get("type"),
+                    parseDate(row.get("entry_date")),
+                    row.get("status"),
+                    row.get("customer_name"),
+                    row.get("customer_phone"),
+                    row.get("customer_city"),
+                    row.get("customer_state"),
+                    parseDecimal(row.get("service_value")),
+                    row.get("technical_diagnosis"),
+                    parseInteger(row.get("vehicle_km")),
+                    row.get("tire_position"),
+                    null);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                error = e.getMessage();
+            }
+        }
+
+        void readItem(CsvRow row, long lineNumber) {
+            String description = row.get("item_description");
+            if (error != null || description == null) {
+                return;
+            }
+            try {
+                String quantity = row.get("item_quantity");
+                items.add(new ServiceItemDTO(
+                    quantity != null ? parseInteger(quantity) : 1,
+                    description,
+                    parseDecimal(row.get("item_unit_price"))));
+            } catch (IllegalArgumentException e) {
+                error = "Linha " + lineNumber + ": " + e.getMessage();
+            }
+        }
+
+        ImportRecord toRecord() {
+            if (error != null) {
+                return ImportRecord.failed(line, error);
+            }
+            return new ImportRecord(line, new ServiceOrderImportDTO(
+                header.orderNumber(), header.type(), header.entryDate(), header.status(), header.customerName(),
+                header.customerPhone(), header.customerCity(), header.customerState(), header.serviceValue(),
+                header.technicalDiagnosis(), header.vehicleKm(), header.tirePosition(), List.copyOf(items)), null);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.contains("/") ? LocalDate.parse(value, BRAZILIAN_DATE) : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + value);
+        }
+    }
+
+    // Aceita 1234.56 e 1.234,56
+    private static BigDecimal parseDecimal(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.contains(",") ? value.replace(".", "").replace(',', '.') : value;
+        try {
+            return new BigDecimal(normalized);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + value);
+        }
+    }
+
+    private static Integer parseInteger(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido: " + value);
+        }
+    }
+}
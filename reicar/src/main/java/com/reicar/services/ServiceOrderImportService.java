@@ -0,0 +1,390 @@
+package com.reicar.services;
+
+import com.reicar.config.Measured;
+import com.reicar.dtos.ServiceItemDTO;
+import com.reicar.dtos.ServiceOrderImportDTO;
+import com.reicar.entities.enums.ImportFormat;
+import com.reicar.entities.enums.ServiceStatus;
+import com.reicar.services.ServiceOrderImportReader.ImportRecord;
+import com.reicar.services.ServiceOrderImportWriter.ChunkResult;
+import com.reicar.services.ServiceOrderImportWriter.ImportError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importação em massa de OS históricas (CSV ou NDJSON). O arquivo é lido em streaming e gravado em
+ * lotes de {@code reicar.import.chunk-size} OS, cada lote em sua própria transação: uma falha perde
+ * no máximo o lote, que é refeito OS a OS para isolar os registros com problema.
+ * Roda uma importação por vez, em uma thread própria; o andamento fica em memória nesta instância.
+ */
+@Slf4j
+@Service
+public class ServiceOrderImportService {
+
+    static final String EXECUTOR_NAME = "order-import";
+    static final String MECHANIC = "MECHANIC";
+    static final String TIRE_SHOP = "TIRE_SHOP";
+    private static final int MAX_KEPT_RUNS = 20;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ServiceOrderImportReader reader;
+    private final ServiceOrderImportWriter writer;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentSkipListMap<Long, ImportRun> runs = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final AtomicLong runIds = new AtomicLong();
+
+    @Value("${reicar.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public ServiceOrderImportService(ServiceOrderImportReader reader,
+                                     ServiceOrderImportWriter writer,
+                                     MeterRegistry meterRegistry) {
+        this.reader = reader;
+        this.writer = writer;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), new CustomizableThreadFactory(EXECUTOR_NAME + "-"));
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME);
+    }
+
+    /**
+     * Copia o upload para um arquivo temporário e inicia a importação.
+     * @throws IllegalStateException se já houver uma importação em andamento
+     */
+    @Measured
+    public ImportRun start(MultipartFile file, String username) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Selecione um arquivo para importar");
+        }
+
+        Path tempFile = Files.createTempFile("reicar-import-", ".tmp");
+        try {
+            file.transferTo(tempFile);
+            ImportRun run = new ImportRun(runIds.incrementAndGet(), file.getOriginalFilename(),
+                ImportFormat.fromFilename(file.getOriginalFilename()), Files.size(tempFile), username);
+            executor.execute(() -> run(run, tempFile));
+            register(run);
+            return run;
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(tempFile);
+            throw new IllegalStateException("Já existe uma importação em andamento. Aguarde a conclusão.");
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    public List<ImportRun> findRecent() {
+        return List.copyOf(runs.values());
+    }
+
+    public ImportRun findById(long id) {
+        ImportRun run = runs.get(id);
+        if (run == null) {
+            throw new EntityNotFoundException("Importação não encontrada: " + id);
+        }
+        return run;
+    }
+
+    /**
+     * Relatório de erros em CSV (separador {@code ;}, UTF-8 com BOM para o Excel).
+     */
+    public byte[] errorReportCsv(ImportRun run) {
+        StringBuilder csv = new StringBuilder("\uFEFFlinha;os;erro\n");
+        for (ImportError error : run.getErrors()) {
+            csv.append(error.line()).append(';')
+                .append(csvField(error.orderNumber())).append(';')
+                .append(csvField(error.message())).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void register(ImportRun run) {
+        runs.put(run.getId(), run);
+        while (runs.size() > MAX_KEPT_RUNS) {
+            runs.pollLastEntry();
+        }
+    }
+
+    private void run(ImportRun run, Path file) {
+        run.status = ImportRun.Status.RUNNING;
+        Map<String, Long> knownCustomers = new HashMap<>();
+        List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader input = new BufferedReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(file), run.bytesRead), StandardCharsets.UTF_8), 64 * 1024)) {
+            reader.read(input, run.getFormat(), record -> {
+                run.records.incrementAndGet();
+                String error = record.error() != null ? record.error() : validate(record.order());
+                if (error != null) {
+                    run.addError(new ImportError(record.line(), record.orderNumber(), error));
+                    return;
+                }
+                chunk.add(record);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(run, chunk, knownCustomers);
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                writeChunk(run, chunk, knownCustomers);
+            }
+            run.status = ImportRun.Status.DONE;
+            log.info("Importação {} concluída: {} OS, {} itens, {} erros em {}s", run.getId(), run.getOrders(),
+                run.getItems(), run.getErrorCount(), run.getElapsed().toSeconds());
+        } catch (Exception e) {
+            log.error("Falha na importação {}", run.getId(), e);
+            run.failureMessage = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            run.status = ImportRun.Status.FAILED;
+        } finally {
+            run.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Não foi possível remover o arquivo temporário {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void writeChunk(ImportRun run, List<ImportRecord> chunk, Map<String, Long> knownCustomers) {
+        try {
+            apply(run, writer.write(chunk, knownCustomers), knownCustomers);
+        } catch (RuntimeException e) {
+            // Lote recusado pelo banco: refaz OS a OS para gravar as válidas e apontar as demais
+            log.warn("Lote da importação {} recusado, gravando OS a OS: {}", run.getId(),
+                NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (ImportRecord record : chunk) {
+                try {
+                    apply(run, writer.write(List.of(record), knownCustomers), knownCustomers);
+                } catch (RuntimeException recordError) {
+                    run.addError(new ImportError(record.line(), record.orderNumber(),
+                        NestedExceptionUtils.getMostSpecificCause(recordError).getMessage()));
+                }
+            }
+        }
+    }
+
+    // Só chamado após o commit do lote: os clientes criados passam a valer para os próximos lotes
+    private static void apply(ImportRun run, ChunkResult result, Map<String, Long> knownCustomers) {
+        run.orders.addAndGet(result.orders());
+        run.items.addAndGet(result.items());
+        run.customersCreated.addAndGet(result.createdCustomers().size());
+        knownCustomers.putAll(result.createdCustomers());
+        result.errors().forEach(run::addError);
+    }
+
+    /**
+     * Mesmas regras do cadastro pela tela, mais os limites das colunas.
+     */
+    static String validate(ServiceOrderImportDTO order) {
+        if (order.type() == null || !(MECHANIC.equalsIgnoreCase(order.type()) || TIRE_SHOP.equalsIgnoreCase(order.type()))) {
+            return "Tipo de OS inválido: " + order.type() + " (use MECHANIC ou TIRE_SHOP)";
+        }
+        if (order.entryDate() == null) {
+            return "Data de entrada é obrigatória";
+        }
+        if (order.customerName() == null || order.customerName().isBlank()) {
+            return "Nome do cliente é obrigatório";
+        }
+        if (order.orderNumber() != null && order.orderNumber().length() > 20) {
+            return "Número da OS excede 20 caracteres: " + order.orderNumber();
+        }
+        if (order.customerName().length() > 150 || (order.customerPhone() != null && order.customerPhone().length() > 20)) {
+            return "Nome (até 150) ou telefone (até 20) do cliente excede o tamanho permitido";
+        }
+        if (order.customerState() != null && order.customerState().length() > 2) {
+            return "UF inválida: " + order.customerState();
+        }
+        if (order.status() != null && Arrays.stream(ServiceStatus.values()).noneMatch(s -> s.name().equalsIgnoreCase(order.status()))) {
+            return "Status inválido: " + order.status();
+        }
+        if (order.serviceValue() != null && order.serviceValue().signum() < 0) {
+            return "Valor do serviço não pode ser negativo";
+        }
+        for (ServiceItemDTO item : order.items()) {
+            if (item.description() == null || item.description().isBlank()) {
+                return "Item sem descrição";
+            }
+            if (item.quantity() == null || item.quantity() <= 0) {
+                return "Quantidade inválida no item: " + item.description();
+            }
+            if (item.unitPrice() == null || item.unitPrice().compareTo(BigDecimal.ZERO) < 0) {
+                return "Preço unitário inválido no item: " + item.description();
+            }
+        }
+        return null;
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.contains(";") || value.contains("\"") || value.contains("\n")
+            ? "\"" + value.replace("\"", "\"\"") + "\""
+            : value;
+    }
+
+    /**
+     * Andamento de uma importação, lido pela tela enquanto a thread de importação escreve.
+     */
+    @Getter
+    public static final class ImportRun {
+
+        public enum Status {
+            QUEUED("Na fila"), RUNNING("Importando"), DONE("Concluída"), FAILED("Falhou");
+
+            @Getter
+            private final String displayName;
+
+            Status(String displayName) {
+                this.displayName = displayName;
+            }
+        }
+
+        private final long id;
+        private final String fileName;
+        private final ImportFormat format;
+        private final long fileSize;
+        private final String requestedBy;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+        private volatile Status status = Status.QUEUED;
+        private volatile String failureMessage;
+
+        @Getter(lombok.AccessLevel.NONE)
+        private final AtomicLong bytesRead = new AtomicLong();
+        @Getter(lombok.AccessLevel.NONE)
+        private final AtomicLong records = new AtomicLong();
+        @Getter(lombok.AccessLevel.NONE)
+        private final AtomicLong orders = new AtomicLong();
+        @Getter(lombok.AccessLevel.NONE)
+        private final AtomicLong items = new AtomicLong();
+        @Getter(lombok.AccessLevel.NONE)
+        private final AtomicLong customersCreated = new AtomicLong();
+        @Getter(lombok.AccessLevel.NONE)
+        private final AtomicLong errorCount = new AtomicLong();
+        @Getter(lombok.AccessLevel.NONE)
+        private final List<ImportError> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ImportRun(long id, String fileName, ImportFormat format, long fileSize, String requestedBy) {
+            this.id = id;
+            this.fileName = fileName;
+            this.format = format;
+            this.fileSize = fileSize;
+            this.requestedBy = requestedBy;
+        }
+
+        public boolean isActive() {
+            return status == Status.QUEUED || status == Status.RUNNING;
+        }
+
+        public int getProgress() {
+            if (status == Status.DONE) {
+                return 100;
+            }
+            return fileSize > 0 ? (int) Math.min(99, bytesRead.get() * 100 / fileSize) : 0;
+        }
+
+        public long getRecords() {
+            return records.get();
+        }
+
+        public long getOrders() {
+            return orders.get();
+        }
+
+        public long getItems() {
+            return items.get();
+        }
+
+        public long getCustomersCreated() {
+            return customersCreated.get();
+        }
+
+        public long getErrorCount() {
+            return errorCount.get();
+        }
+
+        /**
+         * Primeiros {@value MAX_REPORTED_ERRORS} erros; {@link #getErrorCount()} conta todos.
+         */
+        public List<ImportError> getErrors() {
+            synchronized (errors) {
+                return List.copyOf(errors);
+            }
+        }
+
+        public Duration getElapsed() {
+            LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+            return Duration.between(startedAt, end);
+        }
+
+        // Linhas gravadas (OS + itens) por segundo
+        public long getRowsPerSecond() {
+            long millis = Math.max(1, getElapsed().toMillis());
+            return (orders.get() + items.get()) * 1000 / millis;
+        }
+
+        void addError(ImportError error) {
+            if (errorCount.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.reicar.services;
+
+import com.reicar.dtos.ServiceItemDTO;
+import com.reicar.dtos.ServiceOrderImportDTO;
+import com.reicar.entities.*;
+import com.reicar.entities.enums.ServiceStatus;
+import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.ServiceOrderRepository;
+import com.reicar.services.ServiceOrderImportReader.ImportRecord;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Grava um lote de OS importadas em uma única transação, com inserts em lote JDBC
+ * ({@code reicar.import.jdbc-batch-size}). Os ids vêm dos geradores em bloco das entidades,
+ * então OS, itens e clientes novos não precisam de uma ida ao banco por linha.
+ */
+@Service
+@RequiredArgsConstructor
+public class ServiceOrderImportWriter {
+
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final ServiceOrderRepository serviceOrderRepository;
+    private final DocumentNumberService documentNumberService;
+    private final KpiCounters kpiCounters;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reicar.import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    /**
+     * @param createdCustomers clientes cadastrados neste lote (chave → id), válidos só após o commit
+     * @param errors OS recusadas no lote (número já existente)
+     */
+    public record ChunkResult(int orders, int items, Map<String, Long> createdCustomers, List<ImportError> errors) {
+    }
+
+    public record ImportError(long line, String orderNumber, String message) {
+    }
+
+    /**
+     * Os números das OS que vêm sem número são reservados antes da transação do lote
+     * (ver {@link DocumentNumberService}).
+     * @param knownCustomers clientes já resolvidos em lotes anteriores (chave → id); não é alterado aqui
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ChunkResult write(List<ImportRecord> records, Map<String, Long> knownCustomers) {
+        int unnumbered = (int) records.stream().filter(record -> record.order().orderNumber() == null).count();
+        Iterator<String> newOrderNumbers = documentNumberService.nextServiceOrderNumbers(unnumbered).iterator();
+        return transactionTemplate.execute(status -> writeChunk(records, knownCustomers, newOrderNumbers));
+    }
+
+    private ChunkResult writeChunk(List<ImportRecord> records, Map<String, Long> knownCustomers, Iterator<String> newOrderNumbers) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+        Set<String> usedOrderNumbers = findExistingOrderNumbers(records);
+        Map<String, Long> customerIds = findCustomerIds(records, knownCustomers);
+        Map<String, Long> createdCustomers = new HashMap<>();
+        List<ImportError> errors = new ArrayList<>();
+        int orders = 0;
+        int items = 0;
+
+        for (ImportRecord record : records) {
+            ServiceOrderImportDTO dto = record.order();
+            if (dto.orderNumber() != null && !usedOrderNumbers.add(dto.orderNumber())) {
+                errors.add(new ImportError(record.line(), dto.orderNumber(), "OS já existe: " + dto.orderNumber()));
+                continue;
+            }
+
+            ServiceOrder order = toEntity(dto, resolveCustomer(dto, customerIds, createdCustomers), newOrderNumbers);
+            entityManager.persist(order);
+            kpiCounters.serviceOrderCreated(order.getStatus(), order.getTotalValue(), order.getServiceValue());
+            orders++;
+            items += order.getItems().size();
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return new ChunkResult(orders, items, createdCustomers, errors);
+    }
+
+    private Set<String> findExistingOrderNumbers(List<ImportRecord> records) {
+        List<String> orderNumbers = records.stream()
+            .map(ImportRecord::orderNumber)
+            .filter(Objects::nonNull)
+            .toList();
+        return orderNumbers.isEmpty()
+            ? new HashSet<>()
+            : new HashSet<>(serviceOrderRepository.findExistingOrderNumbers(orderNumbers));
+    }
+
+    // Uma consulta por lote para os clientes que ainda não foram vistos na importação
+    private Map<String, Long> findCustomerIds(List<ImportRecord> records, Map<String, Long> knownCustomers) {
+        Map<String, Long> customerIds = new HashMap<>(knownCustomers);
+        Set<String> missingKeys = new HashSet<>();
+        for (ImportRecord record : records) {
+            String lookupKey = Customer.lookupKeyOf(record.order().customerName(), record.order().customerPhone());
+            if (lookupKey != null && !customerIds.containsKey(lookupKey)) {
+                missingKeys.add(lookupKey);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            for (Object[] row : customerRepository.findIdentityByLookupKeyIn(missingKeys)) {
+                String lookupKey = Customer.lookupKeyOf((String) row[1], (String) row[2]);
+                customerIds.merge(lookupKey, (Long) row[0], Math::min);
+            }
+        }
+        return customerIds;
+    }
+
+    private Customer resolveCustomer(ServiceOrderImportDTO dto, Map<String, Long> customerIds, Map<String, Long> createdCustomers) {
+        String lookupKey = Customer.lookupKeyOf(dto.customerName(), dto.customerPhone());
+        Long customerId = lookupKey != null ? customerIds.get(lookupKey) : null;
+        if (customerId != null) {
+            return entityManager.getReference(Customer.class, customerId);
+        }
+
+        Customer customer = new Customer();
+        customer.setName(dto.customerName());
+        customer.setPhone(dto.customerPhone());
+        customer.setCity(dto.customerCity());
+        customer.setState(dto.customerState());
+        entityManager.persist(customer);
+
+        if (lookupKey != null) {
+            customerIds.put(lookupKey, customer.getId());
+            createdCustomers.put(lookupKey, customer.getId());
+        }
+        return customer;
+    }
+
+    private ServiceOrder toEntity(ServiceOrderImportDTO dto, Customer customer, Iterator<String> newOrderNumbers) {
+        ServiceOrder order;
+        if (ServiceOrderImportService.MECHANIC.equalsIgnoreCase(dto.type())) {
+            MechanicServiceOrder mechanic = new MechanicServiceOrder();
+            mechanic.setTechnicalDiagnosis(dto.technicalDiagnosis());
+            mechanic.setVehicleKm(dto.vehicleKm());
+            order = mechanic;
+        } else {
+            TireShopServiceOrder tireShop = new TireShopServiceOrder();
+            tireShop.setTirePosition(dto.tirePosition());
+            order = tireShop;
+        }
+
+        order.setOrderNumber(dto.orderNumber() != null ? dto.orderNumber() : newOrderNumbers.next());
+        order.setEntryDate(dto.entryDate());
+        order.setStatus(dto.status() != null ? ServiceStatus.valueOf(dto.status().toUpperCase(Locale.ROOT)) : ServiceStatus.FINISHED);
+        order.setCustomer(customer);
+        order.setServiceValue(dto.serviceValue() != null ? dto.serviceValue() : BigDecimal.ZERO);
+
+        for (ServiceItemDTO itemDto : dto.items()) {
+            ServiceItem item = new ServiceItem();
+            item.setQuantity(itemDto.quantity());
+            item.setDescription(itemDto.description());
+            item.setUnitPrice(itemDto.unitPrice());
+            item.setServiceOrder(order);
+            order.getItems().add(item);
+        }
+
+        order.calculateTotalValue();
+        return order;
+    }
+}
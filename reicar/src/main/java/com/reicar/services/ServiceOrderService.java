@@ -1,15 +1,19 @@
 package com.reicar.services;
 
+import com.reicar.config.Measured;
+import com.reicar.dtos.DashboardPageDTO;
 import com.reicar.dtos.ServiceOrderDTO;
+import com.reicar.dtos.ServiceOrderKpiDTO;
 import com.reicar.entities.*;
 import com.reicar.entities.enums.ServiceStatus;
 import com.reicar.repositories.CustomerRepository;
 import com.reicar.repositories.ServiceOrderRepository;
-import com.reicar.repositories.SystemConfigRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -21,34 +25,75 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ServiceOrderService {
 
+    public static final int DEFAULT_DASHBOARD_PAGE_SIZE = 20;
+    private static final int MAX_DASHBOARD_PAGE_SIZE = 100;
+
     private final ServiceOrderRepository repository;
     private final CustomerRepository customerRepository;
-    private final SystemConfigRepository systemConfigRepository;
+    private final SystemConfigService systemConfigService;
+    private final DocumentNumberService documentNumberService;
+    private final KpiCounters kpiCounters;
+    private final GeneratedDocumentStore documentStore;
+    private final TransactionTemplate transactionTemplate;
 
     public List<ServiceOrder> findAll() {
         return repository.findAllWithCustomer();
     }
 
+    /**
+     * Busca uma página do dashboard por keyset (entryDate, id), sem OFFSET.
+     * Carrega uma linha a mais que o tamanho pedido para saber se há próxima página.
+     * @param afterEntryDate data da última OS da página anterior (null para a primeira página)
+     * @param afterId id da última OS da página anterior (null para a primeira página)
+     */
+    @Measured
+    public DashboardPageDTO findDashboardPage(LocalDate afterEntryDate, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_DASHBOARD_PAGE_SIZE));
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+
+        List<ServiceOrder> rows = (afterEntryDate != null && afterId != null)
+                ? repository.findDashboardPageAfter(afterEntryDate, afterId, limit)
+                : repository.findDashboardFirstPage(limit);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ServiceOrder> orders = hasNext ? rows.subList(0, pageSize) : rows;
+
+        ServiceOrder last = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+        return new DashboardPageDTO(
+                orders,
+                hasNext,
+                hasNext ? last.getEntryDate() : null,
+                hasNext ? last.getId() : null,
+                pageSize
+        );
+    }
+
+    // Contadores em memória: o dashboard não consulta o banco para os KPIs
+    public ServiceOrderKpiDTO getDashboardKpis() {
+        return kpiCounters.serviceOrderKpis();
+    }
+
     public ServiceOrder findById(Long id){
         return repository.findByIdWithDetails(id).orElseThrow(() -> new EntityNotFoundException("Ordem de serviço não encotrada: id = "+id));
     }
 
-    @Transactional
+    /**
+     * O número é reservado antes da transação que grava a OS (ver {@link DocumentNumberService}).
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    @Measured
     public ServiceOrder saveFromDto(ServiceOrderDTO dto) {
+        String orderNumber = documentNumberService.nextServiceOrderNumber();
+        return transactionTemplate.execute(status -> createOrder(dto, orderNumber));
+    }
+
+    private ServiceOrder createOrder(ServiceOrderDTO dto, String orderNumber) {
         ServiceOrder order = "MECHANIC".equalsIgnoreCase(dto.type())
                 ? new MechanicServiceOrder()
                 : new TireShopServiceOrder();
 
-        // Persistência do Cliente
-        Customer customer = new Customer();
-        customer.setName(dto.customerName());
-        customer.setPhone(dto.customerPhone());
-        customer.setCity(dto.customerCity());
-        customer.setState(dto.customerState());
-        customerRepository.save(customer);
-
-        order.setCustomer(customer);
-        order.setOrderNumber(generateNextOrderNumber());
+        order.setCustomer(resolveCustomer(dto));
+        order.setOrderNumber(orderNumber);
         order.setEntryDate(LocalDate.now());
         order.setStatus(ServiceStatus.OPEN);
 
@@ -76,16 +121,36 @@ public class ServiceOrderService {
             order.getItems().addAll(entityItems);
         }
 
-        // Define o markup: 1.30 (Mecânica) ou 1.0 (Borracharia)
-        double markup = (order instanceof MechanicServiceOrder) ? 1.30 : 1.0;
-        order.calculateTotalValue(markup);
+        // Markup das peças definido pelo tipo de OS: 1.30 (Mecânica) ou 1.0 (Borracharia)
+        order.calculateTotalValue();
 
-        return repository.save(order);
+        ServiceOrder saved = repository.save(order);
+        kpiCounters.serviceOrderCreated(saved.getStatus(), saved.getTotalValue(), saved.getServiceValue());
+        return saved;
     }
 
-    private String generateNextOrderNumber() {
-        long count = repository.count() + 1;
-        return String.format("REICAR-%d-%04d", LocalDate.now().getYear(), count);
+    /**
+     * Reaproveita o cliente já cadastrado com o mesmo telefone e nome (ver {@link Customer#lookupKeyOf}),
+     * atualizando cidade e UF quando informadas; caso contrário cadastra um novo.
+     */
+    private Customer resolveCustomer(ServiceOrderDTO dto) {
+        String lookupKey = Customer.lookupKeyOf(dto.customerName(), dto.customerPhone());
+        Customer customer = lookupKey != null
+                ? customerRepository.findFirstByLookupKeyOrderByIdAsc(lookupKey).orElse(null)
+                : null;
+
+        if (customer == null) {
+            customer = new Customer();
+            customer.setName(dto.customerName());
+            customer.setPhone(dto.customerPhone());
+        }
+        if (dto.customerCity() != null && !dto.customerCity().isBlank()) {
+            customer.setCity(dto.customerCity());
+        }
+        if (dto.customerState() != null && !dto.customerState().isBlank()) {
+            customer.setState(dto.customerState());
+        }
+        return customerRepository.save(customer);
     }
 
     public List<ServiceOrder> findByCustomerWithFilters(Customer customer, LocalDate startDate, LocalDate endDate, String sortBy) {
@@ -112,10 +177,11 @@ public class ServiceOrderService {
     }
 
     public int getWarrantyDays() {
-        return systemConfigRepository.getWarrantyDays();
+        return systemConfigService.getWarrantyDays();
     }
 
     @Transactional
+    @Measured
     public ServiceOrder claimWarranty(Long orderId, Customer customer, String reason) {
         ServiceOrder order = findByIdForCustomer(orderId, customer)
             .orElseThrow(() -> new EntityNotFoundException("Ordem de serviço não encontrada"));
@@ -132,6 +198,7 @@ public class ServiceOrderService {
         order.setWarrantyClaimed(true);
         order.setWarrantyClaimDate(LocalDate.now());
         order.setWarrantyClaimReason(reason);
+        documentStore.invalidateServiceOrderAfterCommit(order.getId());
 
         return repository.save(order);
     }
@@ -0,0 +1,108 @@
+package com.reicar.services;
+
+import com.reicar.config.AfterCommit;
+import com.reicar.entities.SystemConfig;
+import com.reicar.repositories.SystemConfigRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Configurações do sistema mantidas em memória.
+ * Leituras usam um snapshot imutável (sem lock e sem acesso ao banco); o snapshot é trocado
+ * após cada alteração local e quando a verificação periódica detecta mudança feita por outra instância.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SystemConfigService {
+
+    public static final String WARRANTY_DAYS = "warranty_days";
+    static final int DEFAULT_WARRANTY_DAYS = 90;
+
+    private final SystemConfigRepository repository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @PostConstruct
+    void load() {
+        reload();
+    }
+
+    public int getWarrantyDays() {
+        return getInt(WARRANTY_DAYS, DEFAULT_WARRANTY_DAYS);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = snapshot.values().get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Configuração {} com valor inválido: {}", key, value);
+            return defaultValue;
+        }
+    }
+
+    public String getString(String key, String defaultValue) {
+        return snapshot.values().getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Grava a configuração; o cache local é recarregado somente após o commit.
+     */
+    @Transactional
+    public void update(String key, String value, String description) {
+        SystemConfig config = repository.findById(key)
+            .orElseGet(() -> new SystemConfig(key, value, description));
+        config.setConfigValue(value);
+        repository.save(config);
+
+        AfterCommit.run(this::reload);
+    }
+
+    @Transactional
+    public void updateWarrantyDays(int warrantyDays) {
+        update(WARRANTY_DAYS, String.valueOf(warrantyDays), "Período de garantia em dias para serviços realizados");
+    }
+
+    /**
+     * Compara a impressão digital da tabela com a do snapshot e recarrega se outra instância alterou algo.
+     */
+    @Scheduled(fixedDelayString = "${reicar.config.refresh-interval:30s}", initialDelayString = "${reicar.config.refresh-interval:30s}")
+    public void refreshIfChanged() {
+        Object[] row = repository.fingerprint().get(0);
+        long rowCount = ((Number) row[0]).longValue();
+        long versionSum = ((Number) row[1]).longValue();
+
+        Snapshot current = snapshot;
+        if (rowCount != current.rowCount() || versionSum != current.versionSum()) {
+            reload();
+        }
+    }
+
+    void reload() {
+        List<SystemConfig> configs = repository.findAll();
+        Map<String, String> values = configs.stream()
+            .collect(Collectors.toUnmodifiableMap(SystemConfig::getConfigKey, SystemConfig::getConfigValue));
+        long versionSum = configs.stream()
+            .mapToLong(config -> config.getVersion() != null ? config.getVersion() : 0L)
+            .sum();
+
+        snapshot = new Snapshot(values, configs.size(), versionSum);
+        log.debug("Configurações carregadas: {} chaves", values.size());
+    }
+
+    private record Snapshot(Map<String, String> values, long rowCount, long versionSum) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), -1, -1);
+    }
+}
@@ -1,5 +1,6 @@
 package com.reicar.services;
 
+import com.reicar.config.Measured;
 import com.reicar.dtos.UserCreateDTO;
 import com.reicar.dtos.UserUpdateDTO;
 import com.reicar.entities.Customer;
@@ -24,7 +25,9 @@ public class UserService {
     private final UserRepository userRepository;
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
 
+    @Measured
     public User createUser(UserCreateDTO dto) {
         if (userRepository.existsByUsername(dto.username())) {
             throw new IllegalArgumentException("Nome de usuário já existe");
@@ -53,6 +56,7 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Measured
     public User updateUser(Long id, UserUpdateDTO dto) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
@@ -79,14 +83,16 @@ public class UserService {
             user.setCustomer(customer);
         }
 
+        // Senha, perfil ou status alterados valem no próximo login
+        userDetailsService.evictAfterCommit(user.getUsername());
         return userRepository.save(user);
     }
 
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new EntityNotFoundException("Usuário não encontrado");
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+        userRepository.delete(user);
+        userDetailsService.evictAfterCommit(user.getUsername());
     }
 
     @Transactional(readOnly = true)
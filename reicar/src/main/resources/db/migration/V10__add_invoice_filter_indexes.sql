@@ -0,0 +1,9 @@
+/*
+ * Migration: Composite indexes for the combined invoice filter
+ * The list query pushes status, issue date range and customer into one
+ * statement; these indexes let MySQL resolve the common combinations
+ * (status + period, customer + period) with a single range scan.
+ */
+
+CREATE INDEX idx_invoice_status_issue_date ON invoices(status, issue_date);
+CREATE INDEX idx_invoice_customer_issue_date ON invoices(customer_id, issue_date);
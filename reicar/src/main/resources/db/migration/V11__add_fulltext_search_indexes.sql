@@ -0,0 +1,13 @@
+/*
+ * Migration: Full-text search indexes
+ * - customers.name gets an accent-insensitive collation so "jose" matches "José"
+ * - ngram parser tokenizes names and invoice numbers into overlapping n-grams
+ *   (ngram_token_size, default 2), allowing partial-word matches without LIKE '%...%'
+ * - InnoDB keeps the indexes up to date on every insert/update
+ */
+
+ALTER TABLE customers
+    MODIFY name VARCHAR(150) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL;
+
+CREATE FULLTEXT INDEX ft_customers_name ON customers(name) WITH PARSER ngram;
+CREATE FULLTEXT INDEX ft_invoices_number ON invoices(invoice_number) WITH PARSER ngram;
@@ -0,0 +1,9 @@
+/*
+ * Migration: Version column for system configuration
+ * - Incremented on every update (JPA @Version)
+ * - Each instance caches the configuration in memory and compares the
+ *   (row count, version sum) fingerprint periodically to pick up changes
+ *   made through other instances
+ */
+
+ALTER TABLE system_config ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
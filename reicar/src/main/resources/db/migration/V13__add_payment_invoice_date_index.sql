@@ -0,0 +1,7 @@
+/*
+ * Migration: Composite index for the customer statement
+ * Payments are reached from the customer's invoices (invoice_id) and bounded
+ * by payment_date, both for the period lines and for the opening balance.
+ */
+
+CREATE INDEX idx_payment_invoice_date ON payments(invoice_id, payment_date);
@@ -0,0 +1,32 @@
+/*
+ * Migration: Background report jobs
+ * Heavy reports are queued and generated by a bounded worker pool; the
+ * resulting PDF/CSV file is kept in the local report store (file_path)
+ * and downloaded once the job is DONE.
+ */
+
+CREATE TABLE report_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    report_type VARCHAR(30) NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    customer_id BIGINT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    progress INT NOT NULL DEFAULT 0,
+    requested_by VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL,
+    file_path VARCHAR(500) NULL,
+    file_size BIGINT NULL,
+    error_message VARCHAR(500) NULL,
+
+    CONSTRAINT fk_report_job_customer FOREIGN KEY (customer_id) REFERENCES customers(id),
+    CONSTRAINT chk_report_job_type CHECK (report_type IN ('REVENUE', 'CUSTOMER_STATEMENT')),
+    CONSTRAINT chk_report_job_format CHECK (format IN ('PDF', 'CSV')),
+    CONSTRAINT chk_report_job_status CHECK (status IN ('QUEUED', 'RUNNING', 'DONE', 'FAILED'))
+);
+
+CREATE INDEX idx_report_job_requested ON report_jobs(requested_by, created_at);
+CREATE INDEX idx_report_job_status ON report_jobs(status, created_at);
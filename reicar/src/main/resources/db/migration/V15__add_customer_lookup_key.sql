@@ -0,0 +1,21 @@
+/*
+ * Migration: Customer lookup key for deduplication
+ * lookup_key = phone digits (without the 55 country code) + '|' + name in lower case
+ * with collapsed spaces; the application computes it on every insert/update
+ * (Customer.lookupKeyOf). Customers without a usable phone keep it NULL and are never matched.
+ * The accent-insensitive collation makes "José" and "Jose" the same key.
+ * The index is not unique: historical duplicates stay until the merge job consolidates them.
+ */
+
+ALTER TABLE customers
+    ADD COLUMN lookup_key VARCHAR(191) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL;
+
+UPDATE customers
+SET lookup_key = CONCAT(
+        REGEXP_REPLACE(REGEXP_REPLACE(phone, '[^0-9]', ''), '^55([0-9]{10,11})$', '$1'),
+        '|',
+        LOWER(TRIM(REGEXP_REPLACE(name, '[[:space:]]+', ' '))))
+WHERE LENGTH(REGEXP_REPLACE(phone, '[^0-9]', '')) >= 8
+  AND TRIM(name) <> '';
+
+CREATE INDEX idx_customers_lookup_key ON customers(lookup_key);
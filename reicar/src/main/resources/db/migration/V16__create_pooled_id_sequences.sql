@@ -0,0 +1,23 @@
+/*
+ * Migration: Pooled ID generation for customers, service orders and service items
+ * MySQL has no sequences, so Hibernate emulates each one with a single-row table
+ * (next_val). Every fetch reserves a block of 500 ids (allocationSize in the entities),
+ * which lets inserts be batched; IDENTITY forces one round trip per row.
+ * next_val is the upper end of the first block, so it starts 500 above the current max id.
+ * The AUTO_INCREMENT columns stay as they are; Hibernate always sends the id explicitly.
+ */
+
+CREATE TABLE customers_seq (
+    next_val BIGINT
+);
+INSERT INTO customers_seq (next_val) SELECT COALESCE(MAX(id), 0) + 500 FROM customers;
+
+CREATE TABLE service_orders_seq (
+    next_val BIGINT
+);
+INSERT INTO service_orders_seq (next_val) SELECT COALESCE(MAX(id), 0) + 500 FROM service_orders;
+
+CREATE TABLE service_items_seq (
+    next_val BIGINT
+);
+INSERT INTO service_items_seq (next_val) SELECT COALESCE(MAX(id), 0) + 500 FROM service_items;
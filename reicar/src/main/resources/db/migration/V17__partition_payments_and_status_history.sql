@@ -0,0 +1,66 @@
+/*
+ * Migration: Monthly range partitioning for payments and invoice_status_history
+ * - Both tables only grow and every period query filters on payment_date / changed_at,
+ *   so MySQL prunes the scan to the partitions of the requested months
+ * - MySQL requires the partitioning column in every unique key: the primary keys become
+ *   (id, payment_date) and (id, changed_at); id stays AUTO_INCREMENT and unique in practice
+ * - Partitioned InnoDB tables cannot have foreign keys, so fk_payment_invoice and
+ *   fk_history_invoice are dropped; rows are only written through the application
+ * - TIMESTAMP columns are partitioned by UNIX_TIMESTAMP(), the only function MySQL prunes on
+ *   for this type. Month boundaries use the time zone of the session running the migration
+ * - One partition per month from the oldest row to three months ahead, plus pmax for anything
+ *   later. PartitionMaintenance keeps splitting pmax so new months get their own partition
+ * - invoices is not partitioned: its FULLTEXT index (V11) is not supported on partitioned
+ *   tables, and the unique invoice_number / service_order_id would have to include issue_date.
+ *   Its size is bounded by moving closed years to the archive tables (V18)
+ */
+
+ALTER TABLE payments DROP FOREIGN KEY fk_payment_invoice;
+ALTER TABLE invoice_status_history DROP FOREIGN KEY fk_history_invoice;
+
+ALTER TABLE payments DROP PRIMARY KEY, ADD PRIMARY KEY (id, payment_date);
+ALTER TABLE invoice_status_history DROP PRIMARY KEY, ADD PRIMARY KEY (id, changed_at);
+
+SET SESSION group_concat_max_len = 1048576;
+
+/* payments: PARTITION BY RANGE (UNIX_TIMESTAMP(payment_date)) with one pYYYYMM per month */
+SELECT CONCAT('ALTER TABLE payments PARTITION BY RANGE (UNIX_TIMESTAMP(payment_date)) (',
+              GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                                  ' VALUES LESS THAN (UNIX_TIMESTAMP(''', month_start + INTERVAL 1 MONTH, ' 00:00:00''))')
+                           ORDER BY month_start SEPARATOR ', '),
+              ', PARTITION pmax VALUES LESS THAN MAXVALUE)')
+INTO @partition_payments
+FROM (
+    WITH RECURSIVE months (month_start) AS (
+        SELECT CAST(DATE_FORMAT(COALESCE(MIN(payment_date), CURRENT_DATE), '%Y-%m-01') AS DATE) FROM payments
+        UNION ALL
+        SELECT month_start + INTERVAL 1 MONTH FROM months
+        WHERE month_start < CAST(DATE_FORMAT(CURRENT_DATE, '%Y-%m-01') AS DATE) + INTERVAL 3 MONTH
+    )
+    SELECT month_start FROM months
+) partition_months;
+
+PREPARE partition_statement FROM @partition_payments;
+EXECUTE partition_statement;
+DEALLOCATE PREPARE partition_statement;
+
+/* invoice_status_history: same layout on changed_at */
+SELECT CONCAT('ALTER TABLE invoice_status_history PARTITION BY RANGE (UNIX_TIMESTAMP(changed_at)) (',
+              GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                                  ' VALUES LESS THAN (UNIX_TIMESTAMP(''', month_start + INTERVAL 1 MONTH, ' 00:00:00''))')
+                           ORDER BY month_start SEPARATOR ', '),
+              ', PARTITION pmax VALUES LESS THAN MAXVALUE)')
+INTO @partition_history
+FROM (
+    WITH RECURSIVE months (month_start) AS (
+        SELECT CAST(DATE_FORMAT(COALESCE(MIN(changed_at), CURRENT_DATE), '%Y-%m-01') AS DATE) FROM invoice_status_history
+        UNION ALL
+        SELECT month_start + INTERVAL 1 MONTH FROM months
+        WHERE month_start < CAST(DATE_FORMAT(CURRENT_DATE, '%Y-%m-01') AS DATE) + INTERVAL 3 MONTH
+    )
+    SELECT month_start FROM months
+) partition_months;
+
+PREPARE partition_statement FROM @partition_history;
+EXECUTE partition_statement;
+DEALLOCATE PREPARE partition_statement;
@@ -0,0 +1,60 @@
+/*
+ * Migration: Archive tables for closed financial years
+ * - FinancialArchiveService moves every invoice of a closed year (all PAID or CANCELLED,
+ *   older than reicar.archive.keep-years) together with its payments and status history
+ * - Same columns as the hot tables, without partitions or foreign keys; reports read them
+ *   only when the requested period reaches archived data
+ * - financial_archive_years records what was moved per year; last_payment_date is how far
+ *   archived payments reach (an invoice may be paid in a later year)
+ */
+
+CREATE TABLE invoices_archive (
+    id BIGINT PRIMARY KEY,
+    invoice_number VARCHAR(30) NOT NULL,
+    issue_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    service_order_id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    total_value DECIMAL(10, 2) NOT NULL,
+    paid_amount DECIMAL(10, 2) NOT NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_invoice_archive_issue_date ON invoices_archive(issue_date);
+CREATE INDEX idx_invoice_archive_customer_issue_date ON invoices_archive(customer_id, issue_date);
+CREATE INDEX idx_invoice_archive_service_order ON invoices_archive(service_order_id);
+
+CREATE TABLE payments_archive (
+    id BIGINT PRIMARY KEY,
+    invoice_id BIGINT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    payment_date TIMESTAMP NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    recorded_by VARCHAR(100),
+    created_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_payment_archive_invoice_date ON payments_archive(invoice_id, payment_date);
+CREATE INDEX idx_payment_archive_date ON payments_archive(payment_date);
+
+CREATE TABLE invoice_status_history_archive (
+    id BIGINT PRIMARY KEY,
+    invoice_id BIGINT NOT NULL,
+    previous_status VARCHAR(20) NOT NULL,
+    new_status VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    changed_by VARCHAR(100)
+);
+
+CREATE INDEX idx_history_archive_invoice ON invoice_status_history_archive(invoice_id);
+
+CREATE TABLE financial_archive_years (
+    archive_year INT PRIMARY KEY,
+    invoice_count INT NOT NULL DEFAULT 0,
+    payment_count INT NOT NULL DEFAULT 0,
+    history_count INT NOT NULL DEFAULT 0,
+    last_payment_date TIMESTAMP NULL,
+    archived_at TIMESTAMP NOT NULL
+);
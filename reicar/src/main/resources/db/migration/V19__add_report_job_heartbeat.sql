@@ -0,0 +1,12 @@
+/*
+ * Migration: Lease for background report jobs
+ * The instance that holds a QUEUED/RUNNING job refreshes heartbeat_at periodically.
+ * Any instance fails the pending jobs whose heartbeat expired (the holder stopped),
+ * so restarting one node no longer fails jobs that are still running on the others.
+ */
+
+ALTER TABLE report_jobs ADD COLUMN heartbeat_at TIMESTAMP NULL AFTER started_at;
+
+UPDATE report_jobs SET heartbeat_at = COALESCE(started_at, created_at) WHERE status IN ('QUEUED', 'RUNNING');
+
+CREATE INDEX idx_report_job_heartbeat ON report_jobs(status, heartbeat_at);
@@ -0,0 +1,7 @@
+/*
+ * Migration: Composite index for the dashboard keyset pagination
+ * Supports ORDER BY entry_date DESC, id DESC and the seek predicate
+ * (entry_date, id) < (:entryDate, :id) without a filesort.
+ */
+
+CREATE INDEX idx_so_entry_date_id ON service_orders(entry_date, id);
@@ -0,0 +1,34 @@
+/*
+ * Migration: Create document number sequences
+ * - One counter per document type and year (numbering resets every year)
+ * - The application reserves blocks of numbers (hi/lo) and hands them out from memory
+ * - Counters are seeded from the numbers already issued so new ones never collide
+ */
+
+CREATE TABLE document_sequences (
+    sequence_name VARCHAR(30) NOT NULL,
+    sequence_year INT NOT NULL,
+    next_value BIGINT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (sequence_name, sequence_year),
+    CONSTRAINT chk_sequence_next_value CHECK (next_value > 0)
+);
+
+/* Invoices: FAT-YYYY-NNNN */
+INSERT INTO document_sequences (sequence_name, sequence_year, next_value)
+SELECT 'INVOICE',
+       CAST(SUBSTRING_INDEX(SUBSTRING_INDEX(invoice_number, '-', 2), '-', -1) AS UNSIGNED) AS seq_year,
+       MAX(CAST(SUBSTRING_INDEX(invoice_number, '-', -1) AS UNSIGNED)) + 1
+FROM invoices
+WHERE invoice_number LIKE 'FAT-%-%'
+GROUP BY seq_year;
+
+/* Service orders: REICAR-YYYY-NNNN */
+INSERT INTO document_sequences (sequence_name, sequence_year, next_value)
+SELECT 'SERVICE_ORDER',
+       CAST(SUBSTRING_INDEX(SUBSTRING_INDEX(order_number, '-', 2), '-', -1) AS UNSIGNED) AS seq_year,
+       MAX(CAST(SUBSTRING_INDEX(order_number, '-', -1) AS UNSIGNED)) + 1
+FROM service_orders
+WHERE order_number LIKE 'REICAR-%-%'
+GROUP BY seq_year;
@@ -0,0 +1,22 @@
+/*
+ * Migration: Create daily revenue rollup
+ * - One row per day and payment method, updated in the same transaction that records a payment
+ * - Feeds the financial dashboard without scanning the payments table
+ * - Backfilled from the payments recorded so far
+ */
+
+CREATE TABLE daily_revenue_rollup (
+    revenue_date DATE NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(14, 2) NOT NULL DEFAULT 0.00,
+    payment_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (revenue_date, payment_method),
+    CONSTRAINT chk_rollup_payment_method CHECK (payment_method IN ('CASH', 'CREDIT_CARD', 'DEBIT_CARD', 'PIX', 'BANK_TRANSFER'))
+);
+
+INSERT INTO daily_revenue_rollup (revenue_date, payment_method, total_amount, payment_count)
+SELECT DATE(payment_date), payment_method, SUM(amount), COUNT(*)
+FROM payments
+GROUP BY DATE(payment_date), payment_method;
@@ -80,4 +80,16 @@ INSERT IGNORE INTO users (id, username, password, role, enabled, customer_id) VA
 (3, 'maria.oliveira', '$2a$10$N9qo8uLOickgx2ZMRZoMy.MqIiThq8Nva.o.aGrJVFPbT3Y.OBY8G', 'CUSTOMER', true, 2),
 (4, 'mecanico', '$2a$10$N9qo8uLOickgx2ZMRZoMy.MqIiThq8Nva.o.aGrJVFPbT3Y.OBY8G', 'MECHANIC', true, NULL);
 
+/* Daily revenue rollup - rebuilt from payments, since the V9 backfill ran before this seed */
+DELETE FROM daily_revenue_rollup;
+INSERT INTO daily_revenue_rollup (revenue_date, payment_method, total_amount, payment_count)
+SELECT DATE(payment_date), payment_method, SUM(amount), COUNT(*)
+FROM payments
+GROUP BY DATE(payment_date), payment_method;
+
+/* Id sequences (V16) - moved past the explicit ids above; next_val is the upper end of the next 500-id block */
+UPDATE customers_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 500 FROM customers));
+UPDATE service_orders_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 500 FROM service_orders));
+UPDATE service_items_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 500 FROM service_items));
+
 SELECT 'Seed data inserted successfully!' AS status;
@@ -0,0 +1,104 @@
+package com.reicar.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteamento entre dois bancos H2 independentes: cada um guarda o próprio nome em uma tabela,
+ * e a consulta mostra para onde a transação foi.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertThat(readOnly()).isEqualTo("replica");
+        assertThat(readWrite()).isEqualTo("primary");
+        assertThat(databaseName()).isEqualTo("primary");
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryAfterCommit() {
+        authenticate("caixa");
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE db_name SET name = name"));
+
+        assertThat(readOnly()).isEqualTo("primary");
+
+        authenticate("gerente");
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void unavailableReplicaSendsReadsToPrimary() {
+        routingDataSource.setReplicaAvailable(false);
+        assertThat(readOnly()).isEqualTo("primary");
+
+        routingDataSource.setReplicaAvailable(true);
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    private String readOnly() {
+        return readOnlyTransaction.execute(status -> databaseName());
+    }
+
+    private String readWrite() {
+        return writeTransaction.execute(status -> databaseName());
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM db_name", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS db_name (name VARCHAR(20))");
+        jdbc.update("DELETE FROM db_name");
+        jdbc.update("INSERT INTO db_name VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, "x", AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+}
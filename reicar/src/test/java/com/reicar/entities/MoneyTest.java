@@ -0,0 +1,82 @@
+package com.reicar.entities;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere a aritmética em centavos contra o cálculo equivalente em BigDecimal.
+ */
+class MoneyTest {
+
+    @Property
+    void markupMatchesBigDecimalHalfUp(@ForAll @LongRange(min = -100_000_000, max = 100_000_000) long cents,
+                                       @ForAll @IntRange(min = 0, max = 500) int percent) {
+        BigDecimal expected = BigDecimal.valueOf(cents, 2)
+            .multiply(BigDecimal.valueOf(percent, 2))
+            .setScale(2, RoundingMode.HALF_UP);
+
+        assertThat(Money.ofCents(cents).withMarkup(percent).toBigDecimal()).isEqualByComparingTo(expected);
+    }
+
+    @Property
+    void serviceOrderTotalMatchesBigDecimalCalculation(@ForAll @Size(max = 10) List<@IntRange(min = 1, max = 1_000_000) Integer> prices,
+                                                       @ForAll @IntRange(min = 0, max = 1_000_000) int labor) {
+        MechanicServiceOrder order = new MechanicServiceOrder();
+        order.setServiceValue(BigDecimal.valueOf(labor, 2));
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 0; i < prices.size(); i++) {
+            ServiceItem item = new ServiceItem();
+            item.setUnitPrice(BigDecimal.valueOf(prices.get(i), 2));
+            item.setQuantity(i + 1);
+            order.getItems().add(item);
+            expected = expected.add(item.getUnitPrice().multiply(BigDecimal.valueOf(i + 1)).multiply(new BigDecimal("1.30")));
+        }
+
+        order.calculateTotalValue();
+
+        assertThat(order.getTotalValue())
+            .isEqualByComparingTo(expected.add(order.getServiceValue()).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    @Property
+    void sumRoundTripsThroughBigDecimal(@ForAll @Size(max = 50) List<@LongRange(min = -10_000_000, max = 10_000_000) Long> values) {
+        Money.Sum sum = new Money.Sum();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (long value : values) {
+            sum.add(BigDecimal.valueOf(value, 2));
+            expected = expected.add(BigDecimal.valueOf(value, 2));
+        }
+
+        assertThat(sum.toBigDecimal()).isEqualByComparingTo(expected);
+    }
+
+    @Test
+    void formatsInBrazilianCurrency() {
+        assertThat(Money.format(new BigDecimal("0"))).isEqualTo("R$ 0,00");
+        assertThat(Money.format(new BigDecimal("5.1"))).isEqualTo("R$ 5,10");
+        assertThat(Money.format(new BigDecimal("1234.565"))).isEqualTo("R$ 1.234,57");
+        assertThat(Money.format(new BigDecimal("-1234567.89"))).isEqualTo("-R$ 1.234.567,89");
+        assertThat(Money.format(Long.MIN_VALUE)).isEqualTo("-R$ 92.233.720.368.547.758,08");
+        assertThat(Money.format((BigDecimal) null)).isEqualTo("R$ 0,00");
+    }
+
+    @Test
+    void appendsPlainAmountsForCsv() {
+        StringBuilder csv = new StringBuilder();
+        Money.appendPlain(csv, new BigDecimal("1234567.8"));
+        csv.append(';');
+        Money.appendPlain(csv, new BigDecimal("-0.05"));
+
+        assertThat(csv).hasToString("1234567,80;-0,05");
+    }
+}
@@ -0,0 +1,108 @@
+package com.reicar.repositories;
+
+import com.reicar.services.PartitionMaintenance;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere com EXPLAIN que as consultas por período em {@code payments} e {@code invoice_status_history}
+ * leem apenas as partições dos meses pedidos (migration V17).
+ * Precisa de um MySQL 8 descartável: o schema de {@code REICAR_TEST_MYSQL_URL} é apagado e migrado do zero.
+ * <pre>
+ * REICAR_TEST_MYSQL_URL=jdbc:mysql://localhost:3306/reicar_test REICAR_TEST_MYSQL_USER=root \
+ * REICAR_TEST_MYSQL_PASSWORD=... ./mvnw test -Dtest=PartitionPruningTest
+ * </pre>
+ */
+@EnabledIfEnvironmentVariable(named = "REICAR_TEST_MYSQL_URL", matches = ".+")
+class PartitionPruningTest {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final YearMonth currentMonth = YearMonth.now();
+    private JdbcTemplate jdbcTemplate;
+
+    // Schema recriado a cada teste: a manutenção altera as partições
+    @BeforeEach
+    void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            System.getenv("REICAR_TEST_MYSQL_URL"),
+            System.getenv("REICAR_TEST_MYSQL_USER"),
+            System.getenv("REICAR_TEST_MYSQL_PASSWORD"));
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void paymentPeriodQueryReadsOnlyThatMonth() {
+        // Mesmo filtro de PaymentRepository.sumPaymentsBetweenDates
+        String partitions = explainPartitions("payments",
+            "SELECT COALESCE(SUM(amount), 0) FROM payments WHERE payment_date BETWEEN ? AND ?",
+            currentMonth.atDay(1).atStartOfDay(), currentMonth.atEndOfMonth().atTime(23, 59, 59));
+
+        assertThat(partitions).isEqualTo(PARTITION_NAME.format(currentMonth));
+    }
+
+    @Test
+    void customerStatementPaymentsReadOnlyThePeriodMonths() {
+        // Mesmo formato de PaymentRepository.sumForCustomerStatement: junção pela fatura, filtro pela data do pagamento
+        YearMonth nextMonth = currentMonth.plusMonths(1);
+        String partitions = explainPartitions("p",
+            "SELECT COALESCE(SUM(p.amount), 0) FROM payments p JOIN invoices i ON i.id = p.invoice_id " +
+            "WHERE i.customer_id = ? AND p.payment_date BETWEEN ? AND ?",
+            1L, currentMonth.atDay(1).atStartOfDay(), nextMonth.atEndOfMonth().atTime(23, 59, 59));
+
+        assertThat(partitions).isEqualTo(PARTITION_NAME.format(currentMonth) + "," + PARTITION_NAME.format(nextMonth));
+    }
+
+    @Test
+    void statusHistoryPeriodQueryReadsOnlyThatMonth() {
+        String partitions = explainPartitions("invoice_status_history",
+            "SELECT COUNT(*) FROM invoice_status_history WHERE changed_at >= ? AND changed_at < ?",
+            currentMonth.atDay(1).atStartOfDay(), currentMonth.plusMonths(1).atDay(1).atStartOfDay());
+
+        assertThat(partitions).isEqualTo(PARTITION_NAME.format(currentMonth));
+    }
+
+    @Test
+    void maintenanceCreatesUpcomingAndDropsEmptyPartitions() {
+        new PartitionMaintenance(jdbcTemplate, 6).createUpcomingPartitions();
+        assertThat(partitionNames("payments")).contains(PARTITION_NAME.format(currentMonth.plusMonths(6)), "pmax");
+
+        YearMonth far = currentMonth.plusMonths(6);
+        jdbcTemplate.update("INSERT INTO invoice_status_history (invoice_id, previous_status, new_status, changed_at) VALUES (1, 'UNPAID', 'PAID', ?)",
+            far.atDay(10).atStartOfDay());
+        new PartitionMaintenance(jdbcTemplate, 6).dropEmptyPartitionsBefore(far.plusMonths(1).atDay(1));
+
+        assertThat(partitionNames("payments")).containsExactly("pmax");
+        assertThat(partitionNames("invoice_status_history")).containsExactly(PARTITION_NAME.format(far), "pmax");
+    }
+
+    // Coluna "partitions" do EXPLAIN para a tabela (ou alias) informada
+    private String explainPartitions(String table, String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+        return plan.stream()
+            .filter(row -> table.equals(row.get("table")))
+            .map(row -> (String) row.get("partitions"))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private List<String> partitionNames(String table) {
+        return jdbcTemplate.queryForList(
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? " +
+            "ORDER BY PARTITION_ORDINAL_POSITION", String.class, table);
+    }
+}
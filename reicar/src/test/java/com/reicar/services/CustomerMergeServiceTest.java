@@ -0,0 +1,99 @@
+package com.reicar.services;
+
+import com.reicar.entities.Customer;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.MechanicServiceOrder;
+import com.reicar.entities.User;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.entities.enums.Role;
+import com.reicar.repositories.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Mescla de clientes duplicados: o cadastro mais antigo recebe OS, faturas e usuários dos demais.
+ */
+@JpaServiceTest
+@Import(CustomerMergeService.class)
+class CustomerMergeServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerMergeService customerMergeService;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private ReportCache reportCache;
+
+    @MockitoBean
+    private GeneratedDocumentStore documentStore;
+
+    @Test
+    void lookupKeyIgnoresPhoneFormattingAccentsAndCase() {
+        assertThat(Customer.lookupKeyOf("José  da Silva ", "(61) 99999-1234"))
+            .isEqualTo(Customer.lookupKeyOf("jose da silva", "+55 61 99999-1234"))
+            .isEqualTo("61999991234|jose da silva");
+        assertThat(Customer.lookupKeyOf("José da Silva", null)).isNull();
+        assertThat(Customer.lookupKeyOf("José da Silva", "123")).isNull();
+    }
+
+    @Test
+    void mergesDuplicatesIntoOldestCustomer() {
+        Customer original = customer("José da Silva", "(61) 99999-1234", null);
+        Customer duplicate = customer("JOSE DA SILVA", "61999991234", "Brasília");
+        Customer other = customer("José da Silva", "(61) 98888-0000", null);
+        order("OS-1", original);
+        Invoice invoice = invoice("FAT-2", order("OS-2", duplicate));
+        User user = User.builder().username("jose").password("x").role(Role.CUSTOMER).customer(duplicate).build();
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> keys = customerRepository.findDuplicateLookupKeysAfter("", PageRequest.ofSize(100));
+        int removed = customerMergeService.mergeBatch(keys);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(removed).isEqualTo(1);
+        assertThat(customerRepository.findAllById(List.of(original.getId(), duplicate.getId(), other.getId())))
+            .extracting(Customer::getId)
+            .containsExactlyInAnyOrder(original.getId(), other.getId());
+        assertThat(entityManager.find(Customer.class, original.getId()).getCity()).isEqualTo("Brasília");
+        assertThat(entityManager.find(Invoice.class, invoice.getId()).getCustomer().getId()).isEqualTo(original.getId());
+        assertThat(entityManager.find(MechanicServiceOrder.class, invoice.getServiceOrder().getId()).getCustomer().getId())
+            .isEqualTo(original.getId());
+        assertThat(entityManager.find(User.class, user.getId()).getCustomer().getId()).isEqualTo(original.getId());
+        verify(userDetailsService).evictAfterCommit("jose");
+    }
+
+    private Customer customer(String name, String phone, String city) {
+        Customer customer = TestData.customer(name, phone);
+        customer.setCity(city);
+        return entityManager.persist(customer);
+    }
+
+    private MechanicServiceOrder order(String number, Customer customer) {
+        return entityManager.persist(TestData.order(number, customer, LocalDate.now(), "100.00"));
+    }
+
+    private Invoice invoice(String number, MechanicServiceOrder order) {
+        return entityManager.persist(TestData.invoice(number, order, InvoiceStatus.UNPAID, LocalDate.now()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.reicar.services;
+
+import com.reicar.dtos.CustomerStatementDTO;
+import com.reicar.dtos.CustomerStatementEntryDTO;
+import com.reicar.dtos.InvoiceDTO;
+import com.reicar.dtos.RevenueReportDTO;
+import com.reicar.entities.Customer;
+import com.reicar.entities.FinancialArchiveYear;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.InvoiceStatusHistory;
+import com.reicar.entities.MechanicServiceOrder;
+import com.reicar.entities.Payment;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.repositories.ArchivedInvoiceRepository;
+import com.reicar.repositories.ArchivedInvoiceStatusHistoryRepository;
+import com.reicar.repositories.ArchivedPaymentRepository;
+import com.reicar.repositories.FinancialArchiveYearRepository;
+import com.reicar.repositories.InvoiceRepository;
+import com.reicar.repositories.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arquivamento de anos encerrados: faturas, pagamentos e histórico saem das tabelas principais
+ * e continuam nos relatórios cujo período os alcança.
+ */
+@JpaServiceTest
+@Import({FinancialArchiveService.class, FinancialArchiveWriter.class, FinancialArchiveCatalog.class,
+    PartitionMaintenance.class, KpiCounters.class, ReportService.class})
+class FinancialArchiveServiceTest {
+
+    private static final int CLOSED_YEAR = LocalDate.now().getYear() - 4;
+    private static final int OPEN_YEAR = CLOSED_YEAR + 1;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FinancialArchiveService financialArchiveService;
+
+    @Autowired
+    private FinancialArchiveCatalog financialArchiveCatalog;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ArchivedInvoiceRepository archivedInvoiceRepository;
+
+    @Autowired
+    private ArchivedPaymentRepository archivedPaymentRepository;
+
+    @Autowired
+    private ArchivedInvoiceStatusHistoryRepository archivedInvoiceStatusHistoryRepository;
+
+    @Autowired
+    private FinancialArchiveYearRepository financialArchiveYearRepository;
+
+    private Customer customer;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        customer = entityManager.persist(TestData.customer("Cliente Arquivo", "61988887777"));
+
+        // Ano encerrado: duas pagas (uma quitada só em janeiro do ano seguinte) e uma cancelada
+        invoice(LocalDate.of(CLOSED_YEAR, 3, 10), InvoiceStatus.PAID, "100.00",
+            LocalDateTime.of(CLOSED_YEAR, 3, 15, 9, 0));
+        invoice(LocalDate.of(CLOSED_YEAR, 6, 1), InvoiceStatus.CANCELLED, "50.00", null);
+        invoice(LocalDate.of(CLOSED_YEAR, 12, 28), InvoiceStatus.PAID, "80.00",
+            LocalDateTime.of(OPEN_YEAR, 1, 5, 14, 0));
+
+        // Ano seguinte com fatura em aberto: interrompe o arquivamento
+        invoice(LocalDate.of(OPEN_YEAR, 2, 20), InvoiceStatus.UNPAID, "70.00", null);
+        invoice(LocalDate.now(), InvoiceStatus.UNPAID, "40.00", null);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void movesClosedYearWithPaymentsAndHistoryAndStopsAtOpenYear() {
+        assertThat(financialArchiveService.archiveClosedYears()).containsExactly(CLOSED_YEAR);
+        entityManager.clear();
+
+        assertThat(invoiceRepository.count()).isEqualTo(2);
+        assertThat(paymentRepository.count()).isZero();
+        assertThat(archivedInvoiceRepository.count()).isEqualTo(3);
+        assertThat(archivedPaymentRepository.count()).isEqualTo(2);
+        assertThat(archivedInvoiceStatusHistoryRepository.count()).isEqualTo(3);
+
+        FinancialArchiveYear summary = financialArchiveYearRepository.findById(CLOSED_YEAR).orElseThrow();
+        assertThat(summary.getInvoiceCount()).isEqualTo(3);
+        assertThat(summary.getPaymentCount()).isEqualTo(2);
+        assertThat(summary.getLastPaymentDate()).isEqualTo(LocalDateTime.of(OPEN_YEAR, 1, 5, 14, 0));
+
+        // O último pagamento arquivado estende o alcance do arquivo até janeiro do ano seguinte
+        assertThat(financialArchiveCatalog.reaches(LocalDate.of(OPEN_YEAR, 1, 5))).isTrue();
+        assertThat(financialArchiveCatalog.reaches(LocalDate.of(OPEN_YEAR, 1, 6))).isFalse();
+
+        // Nada mais a arquivar enquanto o ano seguinte tiver fatura em aberto
+        assertThat(financialArchiveService.archiveClosedYears()).isEmpty();
+    }
+
+    @Test
+    void reportsReadArchivedDataWhenPeriodReachesIt() {
+        financialArchiveService.archiveClosedYears();
+        entityManager.clear();
+
+        RevenueReportDTO summary = reportService.generateRevenueReportSummary(
+            LocalDate.of(CLOSED_YEAR, 1, 1), LocalDate.of(CLOSED_YEAR, 12, 31));
+        assertThat(summary.invoiceCount()).isEqualTo(3);
+        assertThat(summary.paidInvoiceCount()).isEqualTo(2);
+        assertThat(summary.totalInvoiced()).isEqualByComparingTo("230.00");
+
+        List<InvoiceDTO> streamed = new ArrayList<>();
+        reportService.forEachRevenueReportInvoice(LocalDate.of(CLOSED_YEAR, 1, 1), LocalDate.of(OPEN_YEAR, 12, 31), streamed::add);
+        assertThat(streamed).extracting(InvoiceDTO::issueDate).isSorted().hasSize(4);
+
+        CustomerStatementDTO statement = reportService.generateCustomerStatement(
+            customer.getId(), LocalDate.of(CLOSED_YEAR, 1, 1), LocalDate.of(OPEN_YEAR, 12, 31));
+        assertThat(statement.invoices()).hasSize(4);
+        assertThat(statement.payments()).hasSize(2);
+        assertThat(statement.totalInvoiced()).isEqualByComparingTo("250.00");
+        assertThat(statement.totalPaid()).isEqualByComparingTo("180.00");
+        assertThat(statement.entries()).extracting(CustomerStatementEntryDTO::entryDate).isSorted().hasSize(6);
+        assertThat(statement.entries().get(statement.entries().size() - 1).runningBalance()).isEqualByComparingTo("70.00");
+
+        // Período só com dados recentes: o saldo anterior inclui o histórico arquivado
+        CustomerStatementDTO recent = reportService.generateCustomerStatement(
+            customer.getId(), LocalDate.of(OPEN_YEAR + 1, 1, 1), LocalDate.now());
+        assertThat(recent.openingBalance()).isEqualByComparingTo("70.00");
+        assertThat(recent.invoices()).hasSize(1);
+    }
+
+    private void invoice(LocalDate issueDate, InvoiceStatus status, String total, LocalDateTime paidAt) {
+        int number = ++sequence;
+        MechanicServiceOrder order = entityManager.persist(TestData.order("REICAR-ARQ-" + number, customer, issueDate, total));
+        Invoice invoice = entityManager.persist(TestData.invoice("FAT-ARQ-" + number, order, status, issueDate));
+
+        if (paidAt != null) {
+            Payment payment = TestData.payment(total, paidAt);
+            invoice.addPayment(payment);
+            entityManager.persist(payment);
+        }
+        if (status != InvoiceStatus.UNPAID) {
+            entityManager.persist(InvoiceStatusHistory.builder()
+                .invoice(invoice)
+                .previousStatus(InvoiceStatus.UNPAID)
+                .newStatus(status)
+                .changedAt(paidAt != null ? paidAt : issueDate.atTime(18, 0))
+                .changedBy("admin")
+                .build());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.reicar.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Documentos gerados em disco: o download repetido da mesma versão não gera o PDF de novo,
+ * e invalidação e limpeza por tamanho removem só os arquivos esperados.
+ */
+class GeneratedDocumentStoreTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEB_1 = LocalDate.of(2025, 2, 1);
+    private static final LocalDate FEB_28 = LocalDate.of(2025, 2, 28);
+
+    @TempDir
+    Path storageDir;
+
+    private GeneratedDocumentStore store;
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = new GeneratedDocumentStore(storageDir.toString(), DataSize.ofBytes(1000), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void sameVersionIsRenderedOnce() throws IOException {
+        Path first = store.getServiceOrder(1L, "v1", render(100));
+        Path second = store.getServiceOrder(1L, "v1", render(100));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(Files.size(second)).isEqualTo(100);
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void newVersionReplacesThePreviousFile() throws IOException {
+        Path old = store.getServiceOrder(1L, "v1", render(100));
+        Path current = store.getServiceOrder(1L, "v2", render(100));
+
+        assertThat(old).doesNotExist();
+        assertThat(current).exists();
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void invalidatesOnlyStatementsEndingOnOrAfterTheChange() throws IOException {
+        Path january = store.getCustomerStatement(1L, JAN_1, JAN_31, "v1", render(100));
+        Path february = store.getCustomerStatement(1L, FEB_1, FEB_28, "v1", render(100));
+        Path otherCustomer = store.getCustomerStatement(2L, FEB_1, FEB_28, "v1", render(100));
+
+        store.invalidateCustomerStatementsAfterCommit(1L, LocalDate.of(2025, 2, 10));
+
+        assertThat(january).exists();
+        assertThat(february).doesNotExist();
+        assertThat(otherCustomer).exists();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedFilesAboveMaxSize() throws IOException {
+        Path first = store.getServiceOrder(1L, "v1", render(400));
+        Path second = store.getServiceOrder(2L, "v1", render(400));
+        // O arquivo mais antigo foi baixado de novo depois do segundo
+        Files.setLastModifiedTime(second, FileTime.fromMillis(System.currentTimeMillis() - 600_000));
+        Files.setLastModifiedTime(first, FileTime.fromMillis(System.currentTimeMillis() - 300_000));
+
+        Path third = store.getServiceOrder(3L, "v1", render(400));
+
+        assertThat(second).doesNotExist();
+        assertThat(first).exists();
+        assertThat(third).exists();
+    }
+
+    private ReportFileStore.ArtifactWriter render(int size) {
+        return outputStream -> {
+            renders.incrementAndGet();
+            outputStream.write(new byte[size]);
+        };
+    }
+}
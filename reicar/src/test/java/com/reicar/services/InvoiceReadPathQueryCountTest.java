@@ -0,0 +1,146 @@
+package com.reicar.services;
+
+import com.reicar.dtos.InvoiceDTO;
+import com.reicar.dtos.RevenueReportDTO;
+import com.reicar.dtos.SearchMatchesDTO;
+import com.reicar.entities.Customer;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.MechanicServiceOrder;
+import com.reicar.entities.Payment;
+import com.reicar.entities.enums.InvoiceStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que as listagens de faturas não disparam consultas por linha (N+1):
+ * o número de comandos SQL deve ser fixo, independente da quantidade de faturas.
+ */
+@JpaServiceTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({InvoiceService.class, ReportService.class, DocumentNumberService.class, DocumentSequenceAllocator.class, KpiCounters.class,
+    FinancialArchiveCatalog.class})
+class InvoiceReadPathQueryCountTest {
+
+    private static final int INVOICE_COUNT = 40;
+    private static final int PAYMENTS_PER_INVOICE = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private ReportService reportService;
+
+    // Busca FULLTEXT depende do MySQL; aqui só interessa o SELECT filtrado da listagem
+    @MockitoBean
+    private SearchService searchService;
+
+    @MockitoBean
+    private ReportCache reportCache;
+
+    @MockitoBean
+    private GeneratedDocumentStore documentStore;
+
+    private Statistics statistics;
+    private final LocalDate today = LocalDate.now();
+    private final List<Long> customerIdsMatchingCliente1 = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < INVOICE_COUNT; i++) {
+            Customer customer = entityManager.persist(TestData.customer("Cliente " + i, "6199999" + i));
+            if (customer.getName().startsWith("Cliente 1")) {
+                customerIdsMatchingCliente1.add(customer.getId());
+            }
+
+            MechanicServiceOrder order = entityManager.persist(TestData.order("REICAR-TEST-" + i, customer, today, "100.00"));
+            Invoice invoice = entityManager.persist(TestData.invoice("FAT-TEST-" + i, order, InvoiceStatus.PARTIAL, today));
+
+            for (int p = 0; p < PAYMENTS_PER_INVOICE; p++) {
+                Payment payment = TestData.payment("10.00", today.atTime(10, p));
+                invoice.addPayment(payment);
+                entityManager.persist(payment);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void invoiceListingUsesBoundedQueries() {
+        List<InvoiceDTO> invoices = invoiceService.findWithFilters(null, today, today, null);
+
+        assertThat(invoices).hasSize(INVOICE_COUNT);
+        assertThat(invoices).allSatisfy(invoice -> {
+            assertThat(invoice.customerName()).isNotNull();
+            assertThat(invoice.serviceOrderNumber()).isNotNull();
+            assertThat(invoice.payments()).hasSize(PAYMENTS_PER_INVOICE);
+        });
+        // Faturas com cliente e OS + um lote de pagamentos
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void combinedFiltersRunAsSingleSlicedQuery() {
+        when(searchService.matchInvoices("Cliente 1"))
+            .thenReturn(SearchMatchesDTO.of(customerIdsMatchingCliente1, List.of()));
+
+        Slice<InvoiceDTO> invoices = invoiceService.findWithFilters(
+            InvoiceStatus.PARTIAL, today, today, null, "Cliente 1",
+            PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "issueDate", "id")));
+
+        // "Cliente 1" e "Cliente 10".."Cliente 19"
+        assertThat(invoices.getContent()).hasSize(5);
+        assertThat(invoices.hasNext()).isTrue();
+        assertThat(invoices.getContent()).allSatisfy(invoice ->
+            assertThat(invoice.customerName()).startsWith("Cliente 1"));
+        // Um único SELECT filtrado (sem COUNT) + um lote de pagamentos
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void textFallbackFiltersByNameInTheSameQuery() {
+        when(searchService.matchInvoices("cliente 1")).thenReturn(SearchMatchesDTO.byText("cliente 1"));
+
+        Slice<InvoiceDTO> invoices = invoiceService.findWithFilters(
+            InvoiceStatus.PARTIAL, today, today, null, "cliente 1",
+            PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "issueDate", "id")));
+
+        assertThat(invoices.getContent()).hasSize(5);
+        assertThat(invoices.getContent()).allSatisfy(invoice ->
+            assertThat(invoice.customerName()).startsWith("Cliente 1"));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void revenueReportUsesBoundedQueries() {
+        RevenueReportDTO report = reportService.generateRevenueReport(today, today);
+
+        assertThat(report.invoiceCount()).isEqualTo(INVOICE_COUNT);
+        assertThat(report.invoices()).allSatisfy(invoice ->
+            assertThat(invoice.payments()).hasSize(PAYMENTS_PER_INVOICE));
+        // Faturas + lote de pagamentos + duas agregações da consolidação diária
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+}
@@ -0,0 +1,26 @@
+package com.reicar.services;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Teste de serviço sobre JPA em H2, com as configurações do perfil {@code test} (application-test.yml).
+ * Os serviços testados entram com {@code @Import}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@ActiveProfiles("test")
+public @interface JpaServiceTest {
+
+    @AliasFor(annotation = DataJpaTest.class)
+    String[] properties() default {};
+}
@@ -0,0 +1,79 @@
+package com.reicar.services;
+
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.repositories.DailyRevenueRollupRepository;
+import com.reicar.repositories.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Reconciliação dos contadores de KPI com o banco: alterações aplicadas enquanto a consulta
+ * de reconciliação roda não são descartadas.
+ */
+class KpiCountersTest {
+
+    private InvoiceRepository invoiceRepository;
+    private DailyRevenueRollupRepository dailyRevenueRollupRepository;
+    private KpiCounters kpiCounters;
+
+    @BeforeEach
+    void setUp() {
+        invoiceRepository = mock(InvoiceRepository.class);
+        dailyRevenueRollupRepository = mock(DailyRevenueRollupRepository.class);
+        kpiCounters = new KpiCounters(invoiceRepository, dailyRevenueRollupRepository);
+        when(invoiceRepository.summarizeStatusTotals()).thenReturn(List.of());
+        when(dailyRevenueRollupRepository.sumDailyBetweenDates(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void replacesCountersWithTheAggregate() {
+        kpiCounters.invoiceIssued(InvoiceStatus.UNPAID, new BigDecimal("50.00"));
+        when(invoiceRepository.summarizeStatusTotals()).thenReturn(rows(
+            new Object[]{"INVOICE", "UNPAID", 2L, new BigDecimal("300.00"), BigDecimal.ZERO}));
+
+        kpiCounters.reconcile();
+
+        assertThat(kpiCounters.invoiceCount(InvoiceStatus.UNPAID)).isEqualTo(2);
+        assertThat(kpiCounters.invoiceTotal(InvoiceStatus.UNPAID)).isEqualByComparingTo("300.00");
+    }
+
+    @Test
+    void keepsInvoiceChangesAppliedDuringTheQuery() {
+        when(invoiceRepository.summarizeStatusTotals()).thenAnswer(invocation -> {
+            // Confirmada depois que o agregado foi lido
+            kpiCounters.invoiceIssued(InvoiceStatus.UNPAID, new BigDecimal("100.00"));
+            return rows(new Object[]{"INVOICE", "UNPAID", 2L, new BigDecimal("300.00"), BigDecimal.ZERO});
+        });
+
+        kpiCounters.reconcile();
+
+        assertThat(kpiCounters.invoiceCount(InvoiceStatus.UNPAID)).isEqualTo(3);
+        assertThat(kpiCounters.invoiceTotal(InvoiceStatus.UNPAID)).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void keepsPaymentsAppliedDuringTheQuery() {
+        LocalDate today = LocalDate.now();
+        when(dailyRevenueRollupRepository.sumDailyBetweenDates(any(), any())).thenAnswer(invocation -> {
+            kpiCounters.paymentReceived(today, new BigDecimal("25.00"));
+            return rows(new Object[]{today, new BigDecimal("75.00")});
+        });
+
+        kpiCounters.reconcile();
+
+        assertThat(kpiCounters.revenueBetween(today, today)).isEqualByComparingTo("100.00");
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,199 @@
+package com.reicar.services;
+
+import com.reicar.dtos.PaymentFormDTO;
+import com.reicar.entities.Customer;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.InvoiceStatusHistory;
+import com.reicar.entities.MechanicServiceOrder;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.entities.enums.PaymentMethod;
+import com.reicar.entities.enums.ServiceStatus;
+import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.DailyRevenueRollupRepository;
+import com.reicar.repositories.InvoiceRepository;
+import com.reicar.repositories.InvoiceStatusHistoryRepository;
+import com.reicar.repositories.PaymentRepository;
+import com.reicar.repositories.ServiceOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pagamentos simultâneos na mesma fatura: o saldo nunca é ultrapassado e nenhum valor se perde,
+ * nem no banco nem nos contadores de KPI.
+ * Sem transação de teste, cada pagamento roda na sua, como em produção.
+ */
+@JpaServiceTest
+@Import({PaymentService.class, PaymentRecorder.class, InvoiceService.class, DocumentNumberService.class, DocumentSequenceAllocator.class, KpiCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentRecorderTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ServiceOrderRepository serviceOrderRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceStatusHistoryRepository statusHistoryRepository;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private KpiCounters kpiCounters;
+
+    // Consolidação diária usa INSERT ... ON DUPLICATE KEY do MySQL
+    @MockitoBean
+    private DailyRevenueRollupRepository dailyRevenueRollupRepository;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @MockitoBean
+    private ReportCache reportCache;
+
+    @MockitoBean
+    private GeneratedDocumentStore documentStore;
+
+    // Sem rollback de teste: cada caso parte de um banco vazio para os contadores baterem
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAllInBatch();
+        statusHistoryRepository.deleteAllInBatch();
+        invoiceRepository.deleteAllInBatch();
+        serviceOrderRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentPaymentsNeverExceedTheBalance() throws Exception {
+        Invoice invoice = invoice("FAT-1", "100.00");
+        kpiCounters.reconcile();
+        int cashiers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(cashiers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < cashiers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    paymentService.recordPayment(new PaymentFormDTO(invoice.getId(), new BigDecimal("30.00"), PaymentMethod.PIX), "caixa");
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            accepted += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        Invoice updated = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        assertThat(accepted).isEqualTo(3);
+        assertThat(updated.getPaidAmount()).isEqualByComparingTo("90.00");
+        assertThat(updated.getStatus()).isEqualTo(InvoiceStatus.PARTIAL);
+        assertThat(paymentRepository.findByInvoiceId(invoice.getId())).hasSize(3);
+        assertThat(kpiCounters.invoiceCount(InvoiceStatus.UNPAID)).isZero();
+        assertThat(kpiCounters.invoiceCount(InvoiceStatus.PARTIAL)).isEqualTo(1);
+        assertThat(kpiCounters.invoiceOutstanding(InvoiceStatus.PARTIAL)).isEqualByComparingTo("10.00");
+        assertThat(kpiCounters.revenueBetween(LocalDate.now(), LocalDate.now())).isEqualByComparingTo("90.00");
+
+        paymentService.recordPayment(new PaymentFormDTO(invoice.getId(), new BigDecimal("10.00"), PaymentMethod.CASH), "caixa");
+
+        assertThat(invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus()).isEqualTo(InvoiceStatus.PAID);
+        assertThat(kpiCounters.invoiceCount(InvoiceStatus.PAID)).isEqualTo(1);
+        assertThat(kpiCounters.serviceOrderKpis().countOf(ServiceStatus.FINISHED)).isEqualTo(1);
+        assertThat(statusHistoryRepository.findAll())
+            .filteredOn(history -> history.getInvoice().getId().equals(invoice.getId()))
+            .extracting(InvoiceStatusHistory::getNewStatus)
+            .containsExactlyInAnyOrder(InvoiceStatus.PARTIAL, InvoiceStatus.PAID);
+        assertThatThrownBy(() -> paymentService.recordPayment(
+            new PaymentFormDTO(invoice.getId(), new BigDecimal("1.00"), PaymentMethod.CASH), "caixa"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("totalmente paga");
+    }
+
+    @Test
+    void cancelRacingAPaymentNeverLeavesMoneyOnACancelledInvoice() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            Invoice invoice = invoice("FAT-C" + round, "100.00");
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            Future<Boolean> paid = executor.submit(() -> {
+                start.await();
+                try {
+                    paymentService.recordPayment(new PaymentFormDTO(invoice.getId(), new BigDecimal("40.00"), PaymentMethod.PIX), "caixa");
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            });
+            Future<Boolean> cancelled = executor.submit(() -> {
+                start.await();
+                try {
+                    invoiceService.cancelInvoice(invoice.getId(), "admin");
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            });
+            start.countDown();
+            boolean paymentAccepted = paid.get(30, TimeUnit.SECONDS);
+            boolean cancelAccepted = cancelled.get(30, TimeUnit.SECONDS);
+            executor.shutdown();
+
+            Invoice updated = invoiceRepository.findById(invoice.getId()).orElseThrow();
+            assertThat(paymentAccepted).isNotEqualTo(cancelAccepted);
+            assertThat(updated.getStatus()).isEqualTo(cancelAccepted ? InvoiceStatus.CANCELLED : InvoiceStatus.PARTIAL);
+            assertThat(updated.getPaidAmount()).isEqualByComparingTo(cancelAccepted ? "0.00" : "40.00");
+        }
+    }
+
+    @Test
+    void cancelReportsWhyItWasRefused() {
+        Invoice invoice = invoice("FAT-R", "100.00");
+        paymentService.recordPayment(new PaymentFormDTO(invoice.getId(), new BigDecimal("10.00"), PaymentMethod.CASH), "caixa");
+
+        assertThatThrownBy(() -> invoiceService.cancelInvoice(invoice.getId(), "admin"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("pagamentos registrados");
+
+        Invoice unpaid = invoice("FAT-U", "50.00");
+        invoiceService.cancelInvoice(unpaid.getId(), "admin");
+        assertThatThrownBy(() -> invoiceService.cancelInvoice(unpaid.getId(), "admin"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("já está cancelada");
+    }
+
+    private Invoice invoice(String number, String total) {
+        Customer customer = customerRepository.save(TestData.customer("Cliente " + number, null));
+        MechanicServiceOrder order = serviceOrderRepository.save(TestData.order("OS-" + number, customer, LocalDate.now(), total));
+        return invoiceRepository.save(TestData.invoice(number, order, InvoiceStatus.UNPAID, LocalDate.now()));
+    }
+}
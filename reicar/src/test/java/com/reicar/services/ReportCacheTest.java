@@ -0,0 +1,75 @@
+package com.reicar.services;
+
+import com.reicar.dtos.CustomerStatementDTO;
+import com.reicar.dtos.RevenueReportDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Invalidação do cache de relatórios: só os períodos e clientes afetados voltam a ser calculados.
+ */
+class ReportCacheTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEB_1 = LocalDate.of(2025, 2, 1);
+    private static final LocalDate FEB_28 = LocalDate.of(2025, 2, 28);
+
+    private ReportService reportService;
+    private ReportCache reportCache;
+
+    @BeforeEach
+    void setUp() {
+        reportService = mock(ReportService.class);
+        when(reportService.generateRevenueReport(any(), any())).thenAnswer(invocation -> mock(RevenueReportDTO.class));
+        when(reportService.generateCustomerStatement(any(), any(), any())).thenAnswer(invocation -> mock(CustomerStatementDTO.class));
+        reportCache = new ReportCache(reportService, new SimpleMeterRegistry(), 10, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void repeatedViewIsServedFromMemory() {
+        reportCache.getRevenueReport(JAN_1, JAN_31);
+        reportCache.getRevenueReport(JAN_1, JAN_31);
+        reportCache.getCustomerStatement(1L, JAN_1, JAN_31);
+        reportCache.getCustomerStatement(1L, JAN_1, JAN_31);
+
+        verify(reportService, times(1)).generateRevenueReport(JAN_1, JAN_31);
+        verify(reportService, times(1)).generateCustomerStatement(1L, JAN_1, JAN_31);
+    }
+
+    @Test
+    void invalidatesOnlyRevenueRangesContainingTheChangedDate() {
+        reportCache.getRevenueReport(JAN_1, JAN_31);
+        reportCache.getRevenueReport(FEB_1, FEB_28);
+
+        reportCache.invalidateAfterCommit(1L, LocalDate.of(2025, 2, 10));
+        reportCache.getRevenueReport(JAN_1, JAN_31);
+        reportCache.getRevenueReport(FEB_1, FEB_28);
+
+        verify(reportService, times(1)).generateRevenueReport(JAN_1, JAN_31);
+        verify(reportService, times(2)).generateRevenueReport(FEB_1, FEB_28);
+    }
+
+    @Test
+    void invalidatesStatementsOfTheCustomerEndingOnOrAfterTheChange() {
+        reportCache.getCustomerStatement(1L, JAN_1, JAN_31);
+        reportCache.getCustomerStatement(1L, FEB_1, FEB_28);
+        reportCache.getCustomerStatement(2L, FEB_1, FEB_28);
+
+        // Pagamento em janeiro altera o saldo anterior do extrato de fevereiro
+        reportCache.invalidateAfterCommit(1L, LocalDate.of(2025, 1, 15));
+        reportCache.getCustomerStatement(1L, JAN_1, JAN_31);
+        reportCache.getCustomerStatement(1L, FEB_1, FEB_28);
+        reportCache.getCustomerStatement(2L, FEB_1, FEB_28);
+
+        verify(reportService, times(2)).generateCustomerStatement(1L, JAN_1, JAN_31);
+        verify(reportService, times(2)).generateCustomerStatement(1L, FEB_1, FEB_28);
+        verify(reportService, times(1)).generateCustomerStatement(2L, FEB_1, FEB_28);
+    }
+}
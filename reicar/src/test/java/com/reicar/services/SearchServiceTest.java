@@ -0,0 +1,102 @@
+package com.reicar.services;
+
+import com.reicar.dtos.SearchMatchesDTO;
+import com.reicar.repositories.CustomerRepository;
+import com.reicar.repositories.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Conversão do texto buscado para o índice FULLTEXT e volta ao filtro por trecho quando
+ * o índice não dá uma resposta exata.
+ */
+class SearchServiceTest {
+
+    private CustomerRepository customerRepository;
+    private InvoiceRepository invoiceRepository;
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        invoiceRepository = mock(InvoiceRepository.class);
+        searchService = new SearchService(customerRepository, invoiceRepository);
+    }
+
+    @Test
+    void booleanQueryRequiresEveryTermAndDropsOperators() {
+        assertThat(SearchService.toBooleanQuery("José  da Silva")).isEqualTo("+José +da +Silva");
+        assertThat(SearchService.toBooleanQuery("FAT-2026-0001")).isEqualTo("+FAT +2026 +0001");
+        assertThat(SearchService.toBooleanQuery("+maria -\"souza*\"")).isEqualTo("+maria +souza");
+    }
+
+    @Test
+    void booleanQueryIsEmptyWhenAnyTermIsShorterThanTheToken() {
+        assertThat(SearchService.toBooleanQuery("joão a")).isEmpty();
+        assertThat(SearchService.toBooleanQuery("a")).isEmpty();
+        assertThat(SearchService.toBooleanQuery(null)).isEmpty();
+    }
+
+    @Test
+    void matchesIdsFromBothIndexes() {
+        when(customerRepository.searchIdsByName("+silva", SearchService.MAX_MATCHED_IDS + 1)).thenReturn(List.of(1L, 2L));
+        when(invoiceRepository.searchIdsByInvoiceNumber("+silva", SearchService.MAX_MATCHED_IDS + 1)).thenReturn(List.of());
+
+        SearchMatchesDTO matches = searchService.matchInvoices("silva");
+
+        assertThat(matches.isByText()).isFalse();
+        assertThat(matches.customerIds()).containsExactly(1L, 2L);
+        assertThat(matches.invoiceIds()).isEmpty();
+    }
+
+    @Test
+    void singleCharacterSearchFallsBackToText() {
+        SearchMatchesDTO matches = searchService.matchInvoices(" a ");
+
+        assertThat(matches.isByText()).isTrue();
+        assertThat(matches.text()).isEqualTo("a");
+        assertThat(matches.isEmpty()).isFalse();
+        verifyNoInteractions(customerRepository, invoiceRepository);
+    }
+
+    @Test
+    void mixedShortAndLongTermsFallBackToText() {
+        SearchMatchesDTO matches = searchService.matchInvoices("Cliente 1");
+
+        assertThat(matches.isByText()).isTrue();
+        assertThat(matches.text()).isEqualTo("Cliente 1");
+        verifyNoInteractions(customerRepository, invoiceRepository);
+    }
+
+    @Test
+    void customerSearchWithAShortTermFallsBackToText() {
+        searchService.searchCustomers("Cliente 1");
+
+        verify(customerRepository).findByNameContainingIgnoreCaseOrderByName("Cliente 1", PageRequest.ofSize(SearchService.MAX_CUSTOMER_RESULTS));
+        verify(customerRepository, never()).searchByName(anyString(), anyInt());
+    }
+
+    @Test
+    void truncatedIdListFallsBackToText() {
+        List<Long> tooMany = LongStream.rangeClosed(1, SearchService.MAX_MATCHED_IDS + 1).boxed().toList();
+        when(customerRepository.searchIdsByName("+silva", SearchService.MAX_MATCHED_IDS + 1)).thenReturn(tooMany);
+
+        SearchMatchesDTO matches = searchService.matchInvoices("silva");
+
+        assertThat(matches.isByText()).isTrue();
+        assertThat(matches.text()).isEqualTo("silva");
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void blankSearchMatchesNothing() {
+        assertThat(searchService.matchInvoices("  ").isEmpty()).isTrue();
+    }
+}
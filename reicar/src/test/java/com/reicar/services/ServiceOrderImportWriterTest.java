@@ -0,0 +1,105 @@
+package com.reicar.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reicar.entities.Customer;
+import com.reicar.entities.MechanicServiceOrder;
+import com.reicar.entities.ServiceOrder;
+import com.reicar.entities.TireShopServiceOrder;
+import com.reicar.entities.enums.ImportFormat;
+import com.reicar.entities.enums.ServiceStatus;
+import com.reicar.services.ServiceOrderImportReader.ImportRecord;
+import com.reicar.services.ServiceOrderImportWriter.ChunkResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Importação em massa: leitura do CSV agrupando itens por OS e gravação do lote.
+ */
+@JpaServiceTest
+@Import({ServiceOrderImportWriter.class, KpiCounters.class})
+class ServiceOrderImportWriterTest {
+
+    private static final String CSV = """
+        order_number;type;entry_date;status;customer_name;customer_phone;service_value;item_description;item_quantity;item_unit_price
+        OS-1;MECHANIC;10/03/2020;;José da Silva;(61) 99999-1234;150,00;Óleo;4;35,50
+        OS-1;MECHANIC;10/03/2020;;José da Silva;(61) 99999-1234;150,00;Filtro;1;40
+        OS-2;TIRE_SHOP;2020-03-11;OPEN;Maria Souza;61 98888-0000;;Remendo;1;25
+        OS-3;MECHANIC;31/02/2020;;Ana;;;;;
+        """;
+
+    private final ServiceOrderImportReader reader =
+        new ServiceOrderImportReader(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServiceOrderImportWriter writer;
+
+    @MockitoBean
+    private DocumentNumberService documentNumberService;
+
+    @Test
+    void readsCsvGroupingItemsByOrderNumber() throws IOException {
+        List<ImportRecord> records = read(CSV, ImportFormat.CSV);
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).order().items()).hasSize(2);
+        assertThat(records.get(0).order().items().get(0).unitPrice()).isEqualByComparingTo("35.50");
+        assertThat(records.get(1).order().entryDate()).isEqualTo("2020-03-11");
+        assertThat(records.get(2).line()).isEqualTo(5);
+        assertThat(records.get(2).error()).contains("31/02/2020");
+    }
+
+    @Test
+    void writesOrdersReusingCustomersAndSkippingExistingNumbers() throws IOException {
+        Customer existing = entityManager.persist(TestData.customer("JOSE DA SILVA", "61999991234"));
+        entityManager.flush();
+        when(documentNumberService.nextServiceOrderNumbers(1)).thenReturn(List.of("REICAR-2020-0001"));
+
+        List<ImportRecord> records = new ArrayList<>(read(CSV, ImportFormat.CSV).subList(0, 2));
+        records.addAll(read("""
+            {"type":"MECHANIC","entryDate":"2020-03-12","customerName":"Maria Souza","customerPhone":"(61) 98888-0000","items":[{"quantity":1,"description":"Revisão","unitPrice":200}]}
+            {"orderNumber":"OS-1","type":"MECHANIC","entryDate":"2020-03-12","customerName":"Outro"}
+            """, ImportFormat.NDJSON));
+
+        ChunkResult result = writer.write(records, Map.of());
+
+        assertThat(result.orders()).isEqualTo(3);
+        assertThat(result.items()).isEqualTo(4);
+        assertThat(result.createdCustomers()).hasSize(1);
+        assertThat(result.errors()).singleElement().satisfies(error -> assertThat(error.orderNumber()).isEqualTo("OS-1"));
+
+        List<ServiceOrder> orders = entityManager.getEntityManager()
+            .createQuery("SELECT so FROM ServiceOrder so ORDER BY so.orderNumber", ServiceOrder.class)
+            .getResultList();
+        assertThat(orders).extracting(ServiceOrder::getOrderNumber).containsExactly("OS-1", "OS-2", "REICAR-2020-0001");
+        assertThat(orders.get(0)).isInstanceOf(MechanicServiceOrder.class);
+        assertThat(orders.get(0).getCustomer().getId()).isEqualTo(existing.getId());
+        assertThat(orders.get(0).getStatus()).isEqualTo(ServiceStatus.FINISHED);
+        assertThat(orders.get(0).getTotalValue()).isGreaterThanOrEqualTo(new BigDecimal("332.00"));
+        assertThat(orders.get(1)).isInstanceOf(TireShopServiceOrder.class);
+        assertThat(orders.get(2).getCustomer().getId()).isEqualTo(orders.get(1).getCustomer().getId());
+    }
+
+    private List<ImportRecord> read(String content, ImportFormat format) throws IOException {
+        List<ImportRecord> records = new ArrayList<>();
+        reader.read(new BufferedReader(new StringReader(content)), format, records::add);
+        return records;
+    }
+}
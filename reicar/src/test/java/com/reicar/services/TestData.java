@@ -0,0 +1,61 @@
+package com.reicar.services;
+
+import com.reicar.entities.Customer;
+import com.reicar.entities.Invoice;
+import com.reicar.entities.MechanicServiceOrder;
+import com.reicar.entities.Payment;
+import com.reicar.entities.enums.InvoiceStatus;
+import com.reicar.entities.enums.PaymentMethod;
+import com.reicar.entities.enums.ServiceStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidades para os testes, ainda não gravadas: cada teste persiste com o
+ * {@code TestEntityManager} ou com os repositórios, conforme a transação que usa.
+ */
+final class TestData {
+
+    private TestData() {
+    }
+
+    static Customer customer(String name, String phone) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setPhone(phone);
+        return customer;
+    }
+
+    // OS de mecânica finalizada, pronta para faturar
+    static MechanicServiceOrder order(String orderNumber, Customer customer, LocalDate entryDate, String totalValue) {
+        MechanicServiceOrder order = new MechanicServiceOrder();
+        order.setOrderNumber(orderNumber);
+        order.setEntryDate(entryDate);
+        order.setStatus(ServiceStatus.FINISHED);
+        order.setCustomer(customer);
+        order.setTotalValue(new BigDecimal(totalValue));
+        return order;
+    }
+
+    // Fatura da OS, para o mesmo cliente e com o mesmo valor
+    static Invoice invoice(String invoiceNumber, MechanicServiceOrder order, InvoiceStatus status, LocalDate issueDate) {
+        return Invoice.builder()
+            .invoiceNumber(invoiceNumber)
+            .issueDate(issueDate)
+            .status(status)
+            .serviceOrder(order)
+            .customer(order.getCustomer())
+            .totalValue(order.getTotalValue())
+            .build();
+    }
+
+    static Payment payment(String amount, LocalDateTime paymentDate) {
+        return Payment.builder()
+            .amount(new BigDecimal(amount))
+            .paymentDate(paymentDate)
+            .paymentMethod(PaymentMethod.PIX)
+            .build();
+    }
+}